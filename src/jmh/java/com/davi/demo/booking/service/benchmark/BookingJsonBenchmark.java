@@ -0,0 +1,100 @@
+package com.davi.demo.booking.service.benchmark;
+
+import com.davi.demo.booking.service.common.BookingView;
+import com.davi.demo.booking.service.common.PropertyView;
+import com.davi.demo.booking.service.configuration.BookingJsonModule;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.model.Property;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of Booking lists, as done by the list, export and batch endpoints.
+ * The ObjectMapper is built like Spring Boot builds it, including the @JsonFormat dates.
+ * serializer reflective uses Jackson's bean serializers, streaming installs BookingJsonModule like the application.
+ * The read endpoints serialize BookingViews, the reactive and batch endpoints Bookings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingJsonBenchmark {
+
+    private static final TypeReference<List<Booking>> BOOKING_LIST = new TypeReference<>() {
+    };
+
+    @Param({"50", "1000"})
+    private int size;
+
+    @Param({"reflective", "streaming"})
+    private String serializer;
+
+    private ObjectMapper objectMapper;
+    private List<Booking> bookings;
+    private List<BookingView> views;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws Exception {
+        var builder = new Jackson2ObjectMapperBuilder();
+        if(serializer.equals("streaming")) {
+            builder.modulesToInstall(new BookingJsonModule());
+        }
+        objectMapper = builder.build();
+        bookings = new ArrayList<>(size);
+        views = new ArrayList<>(size);
+        var start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for(int i = 0; i < size; i++) {
+            var property = new Property();
+            property.setId((long) i % 100);
+            property.setName("House " + i % 100);
+
+            var booking = new Booking();
+            booking.setId((long) i);
+            booking.setName("booking " + i);
+            booking.setDescription("description");
+            booking.setStartDate(start.plusHours(i));
+            booking.setEndDate(start.plusHours(i + 1));
+            booking.setProperty(property);
+            bookings.add(booking);
+            views.add(new BookingView(booking.getId(), booking.getName(), booking.getDescription(),
+                    booking.getStartDate(), booking.getEndDate(), booking.getIsCanceled(),
+                    new PropertyView(property.getId(), property.getName()), booking.getVersion()));
+        }
+        json = objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] serializeViews() throws Exception {
+        return objectMapper.writeValueAsBytes(views);
+    }
+
+    @Benchmark
+    public List<Booking> deserialize() throws Exception {
+        return objectMapper.readValue(json, BOOKING_LIST);
+    }
+}
@@ -0,0 +1,45 @@
+package com.davi.demo.booking.service.benchmark;
+
+import com.davi.demo.booking.service.common.DateUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the yyyy-MM-dd HH:mm:ss conversion done at the JSON and request parameter boundary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilBenchmark {
+
+    private final String date = "2024-01-01 01:00:00";
+    private final LocalDateTime localDateTime = LocalDateTime.of(2024, 1, 1, 1, 0);
+
+    @Benchmark
+    public LocalDateTime parse() {
+        return DateUtil.parse(date);
+    }
+
+    @Benchmark
+    public String format() {
+        return DateUtil.format(localDateTime);
+    }
+
+    @Benchmark
+    public long toEpochSecond() {
+        return DateUtil.toEpochSecond(localDateTime);
+    }
+}
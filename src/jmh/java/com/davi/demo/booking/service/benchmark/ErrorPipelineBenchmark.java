@@ -0,0 +1,118 @@
+package com.davi.demo.booking.service.benchmark;
+
+import com.davi.demo.booking.service.common.ErrorResponse;
+import com.davi.demo.booking.service.configuration.ResponseExceptionHandler;
+import com.davi.demo.booking.service.exception.BadRequestException;
+import com.davi.demo.booking.service.exception.BaseException;
+import com.davi.demo.booking.service.exception.NotFoundException;
+import com.davi.demo.booking.service.service.BookingMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.text.MessageFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Throw a domain exception depth frames below the caller and turn it into the error response,
+ * like a rejected request does. legacy* replays the previous pipeline: an exception with a stack trace,
+ * the message parsed by MessageFormat on every throw, a new payload and a Counter looked up through its builder.
+ * Run with -prof gc to compare the allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorPipelineBenchmark {
+
+    private static final String CONFLICT = "Property is already booked for this period";
+    private static final String NOT_FOUND = "Booking id: {0,number,#} not found";
+
+    /**
+     * Frames between the throw and the handler, a request through Spring MVC and JPA is well over 100.
+     */
+    @Param({"10", "150"})
+    private int depth;
+
+    private final Long id = 42L;
+    private MeterRegistry legacyRegistry;
+    private ResponseExceptionHandler handler;
+
+    @Setup
+    public void setup() {
+        legacyRegistry = new SimpleMeterRegistry();
+        handler = new ResponseExceptionHandler(new BookingMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> conflict() {
+        return handle(() -> new BadRequestException(CONFLICT));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> notFound() {
+        return handle(() -> new NotFoundException(NOT_FOUND, id));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> legacyConflict() {
+        return legacyHandle(() -> new LegacyException(CONFLICT));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> legacyNotFound() {
+        return legacyHandle(() -> new LegacyException(NOT_FOUND, id));
+    }
+
+    private ResponseEntity<ErrorResponse> handle(Supplier<BaseException> exception) {
+        try {
+            throwAt(depth, exception);
+            throw new IllegalStateException("not thrown");
+        } catch (BaseException e) {
+            return handler.handleCustomException(e);
+        }
+    }
+
+    private ResponseEntity<ErrorResponse> legacyHandle(Supplier<LegacyException> exception) {
+        try {
+            throwAt(depth, exception);
+            throw new IllegalStateException("not thrown");
+        } catch (LegacyException e) {
+            Counter.builder("booking.validation.failures")
+                    .tag("type", e.getClass().getSimpleName())
+                    .register(legacyRegistry)
+                    .increment();
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static void throwAt(int depth, Supplier<? extends RuntimeException> exception) {
+        if(depth == 0) {
+            throw exception.get();
+        }
+        throwAt(depth - 1, exception);
+    }
+
+    private static class LegacyException extends RuntimeException {
+
+        LegacyException(String format, Object... args) {
+            super(MessageFormat.format(format, args));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.davi.demo.booking.service.benchmark;
+
+import com.davi.demo.booking.service.BookingServiceApplication;
+import com.davi.demo.booking.service.exception.BadRequestException;
+import com.davi.demo.booking.service.model.Blocking;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.model.Property;
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import com.davi.demo.booking.service.repository.PropertyRepository;
+import com.davi.demo.booking.service.service.AvailabilityIndex;
+import com.davi.demo.booking.service.service.BlockingService;
+import com.davi.demo.booking.service.service.BookingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlap validation of BookingService and BlockingService against an in-memory H2
+ * seeded with PROPERTIES Properties, each with BOOKINGS_PER_PROPERTY Bookings and BLOCKINGS_PER_PROPERTY Blockings.
+ * Every call conflicts with a saved row, so it runs the full validation and rolls back without changing the data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OverlapValidationBenchmark {
+
+    private static final int PROPERTIES = 1_000;
+    private static final int BOOKINGS_PER_PROPERTY = 50;
+    private static final int BLOCKINGS_PER_PROPERTY = 5;
+    private static final int BLOCKING_FIRST_DAY = 100;
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"false", "true"})
+    private boolean availabilityIndex;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private BlockingService blockingService;
+    private List<Long> propertyIds;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(BookingServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.liquibase.contexts=benchmark",
+                        "--booking.availability.index.enabled=" + availabilityIndex,
+                        "--logging.level.root=WARN");
+        bookingService = context.getBean(BookingService.class);
+        blockingService = context.getBean(BlockingService.class);
+        seed();
+        context.getBean(AvailabilityIndex.class).load();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object createOverlappingBooking() {
+        var random = ThreadLocalRandom.current();
+        var booking = new Booking();
+        booking.setName("benchmark");
+        booking.setProperty(property(propertyIds.get(random.nextInt(propertyIds.size()))));
+        booking.setStartDate(FIRST_DAY.plusDays(random.nextInt(BOOKINGS_PER_PROPERTY)).plusHours(11));
+        booking.setEndDate(booking.getStartDate().plusHours(2));
+        try {
+            bookingService.createBooking(booking);
+            throw new IllegalStateException("Booking should overlap");
+        } catch (BadRequestException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object createOverlappingBlocking() {
+        var random = ThreadLocalRandom.current();
+        var blocking = new Blocking();
+        blocking.setName("benchmark");
+        blocking.setProperty(property(propertyIds.get(random.nextInt(propertyIds.size()))));
+        blocking.setStartDate(FIRST_DAY.plusDays(BLOCKING_FIRST_DAY + random.nextInt(BLOCKINGS_PER_PROPERTY)).plusHours(6));
+        blocking.setEndDate(blocking.getStartDate().plusHours(2));
+        try {
+            blockingService.createBlocking(blocking);
+            throw new IllegalStateException("Blocking should overlap");
+        } catch (BadRequestException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Bookings from 10:00 to 12:00 on the first days, Blockings for a whole day later on.
+     */
+    private void seed() {
+        var properties = new ArrayList<Property>();
+        for(int i = 0; i < PROPERTIES; i++) {
+            var property = new Property();
+            property.setName("House " + i);
+            properties.add(property);
+        }
+        properties = new ArrayList<>(context.getBean(PropertyRepository.class).saveAll(properties));
+        propertyIds = properties.stream().map(Property::getId).toList();
+
+        var bookings = new ArrayList<Booking>();
+        var blockings = new ArrayList<Blocking>();
+        for(var property : properties) {
+            for(int day = 0; day < BOOKINGS_PER_PROPERTY; day++) {
+                var booking = new Booking();
+                booking.setName("booking " + day);
+                booking.setProperty(property);
+                booking.setStartDate(FIRST_DAY.plusDays(day).plusHours(10));
+                booking.setEndDate(FIRST_DAY.plusDays(day).plusHours(12));
+                bookings.add(booking);
+            }
+            for(int day = 0; day < BLOCKINGS_PER_PROPERTY; day++) {
+                var blocking = new Blocking();
+                blocking.setName("blocking " + day);
+                blocking.setProperty(property);
+                blocking.setStartDate(FIRST_DAY.plusDays(BLOCKING_FIRST_DAY + day));
+                blocking.setEndDate(FIRST_DAY.plusDays(BLOCKING_FIRST_DAY + day + 1));
+                blockings.add(blocking);
+            }
+        }
+        context.getBean(BookingRepository.class).saveAll(bookings);
+        context.getBean(BlockingRepository.class).saveAll(blockings);
+    }
+
+    private static Property property(Long id) {
+        var property = new Property();
+        property.setId(id);
+        return property;
+    }
+}
@@ -0,0 +1,152 @@
+package com.davi.demo.booking.service.benchmark;
+
+import com.davi.demo.booking.service.BookingServiceApplication;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.model.Property;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import com.davi.demo.booking.service.repository.PropertyRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bursts of BURST concurrent Booking list requests against the running web server,
+ * served by Tomcat platform threads (thread per request) or by virtual threads.
+ * Tomcat is limited to TOMCAT_THREADS and the database to POOL_SIZE connections in both modes.
+ * Virtual threads need Java 21, the trial fails when Tomcat does not run the requests on the expected threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    private static final int BURST = 500;
+    private static final int TOMCAT_THREADS = 50;
+    private static final int POOL_SIZE = 10;
+    private static final int PROPERTIES = 100;
+    private static final int BOOKINGS_PER_PROPERTY = 20;
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private List<Long> propertyIds;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(BookingServiceApplication.class)
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:threading;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.liquibase.contexts=benchmark",
+                        "--logging.level.root=WARN");
+        checkThreadingMode();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        clientExecutor = Executors.newFixedThreadPool(16);
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+        seed();
+    }
+
+    private void checkThreadingMode() {
+        var webServer = (TomcatWebServer) ((WebServerApplicationContext) context).getWebServer();
+        var executor = webServer.getTomcat().getConnector().getProtocolHandler().getExecutor();
+        if(virtualThreads != executor instanceof VirtualThreadExecutor) {
+            context.close();
+            throw new IllegalStateException("Tomcat runs on " + executor.getClass().getSimpleName()
+                    + " with virtualThreads=" + virtualThreads + " on Java " + Runtime.version().feature());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clientExecutor.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public int listBookingsBurst() {
+        var random = ThreadLocalRandom.current();
+        var responses = new ArrayList<CompletableFuture<HttpResponse<Void>>>(BURST);
+        for(int i = 0; i < BURST; i++) {
+            var propertyId = propertyIds.get(random.nextInt(propertyIds.size()));
+            var request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/guest/bookings?size=20&propertyId=" + propertyId))
+                    .GET()
+                    .build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int ok = 0;
+        for(var response : responses) {
+            if(response.join().statusCode() == 200) {
+                ok++;
+            }
+        }
+        if(ok != BURST) {
+            throw new IllegalStateException((BURST - ok) + " requests failed");
+        }
+        return ok;
+    }
+
+    private void seed() {
+        var properties = new ArrayList<Property>();
+        for(int i = 0; i < PROPERTIES; i++) {
+            var property = new Property();
+            property.setName("House " + i);
+            properties.add(property);
+        }
+        properties = new ArrayList<>(context.getBean(PropertyRepository.class).saveAll(properties));
+        propertyIds = properties.stream().map(Property::getId).toList();
+
+        var bookings = new ArrayList<Booking>();
+        for(var property : properties) {
+            for(int day = 0; day < BOOKINGS_PER_PROPERTY; day++) {
+                var booking = new Booking();
+                booking.setName("booking " + day);
+                booking.setProperty(property);
+                booking.setStartDate(FIRST_DAY.plusDays(day).plusHours(10));
+                booking.setEndDate(FIRST_DAY.plusDays(day).plusHours(12));
+                bookings.add(booking);
+            }
+        }
+        context.getBean(BookingRepository.class).saveAll(bookings);
+    }
+}
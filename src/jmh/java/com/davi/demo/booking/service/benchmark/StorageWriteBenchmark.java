@@ -0,0 +1,88 @@
+package com.davi.demo.booking.service.benchmark;
+
+import com.davi.demo.booking.service.BookingServiceApplication;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.model.Property;
+import com.davi.demo.booking.service.repository.PropertyRepository;
+import com.davi.demo.booking.service.service.BookingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Booking write throughput of the persistent profile, with the H2 database either in memory or in files
+ * under a temporary directory. Every call books the next free 2 hours of the same Property, so it always commits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageWriteBenchmark {
+
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Param({"mem", "file"})
+    private String storage;
+
+    private final AtomicLong slot = new AtomicLong();
+    private Path dataDir;
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private Property property;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dataDir = Files.createTempDirectory("booking-storage");
+        var args = "mem".equals(storage)
+                ? new String[]{"--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1"}
+                : new String[]{"--booking.storage.dir=" + dataDir.toAbsolutePath()};
+        context = new SpringApplicationBuilder(BookingServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("persistent")
+                .properties("logging.level.root=WARN")
+                .run(args);
+        bookingService = context.getBean(BookingService.class);
+        property = new Property();
+        property.setName("Storage benchmark");
+        property = context.getBean(PropertyRepository.class).save(property);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public void createBooking() {
+        var booking = new Booking();
+        booking.setName("benchmark");
+        booking.setProperty(property);
+        booking.setStartDate(FIRST_DAY.plusHours(2 * slot.getAndIncrement()));
+        booking.setEndDate(booking.getStartDate().plusHours(2));
+        bookingService.createBooking(booking);
+    }
+}
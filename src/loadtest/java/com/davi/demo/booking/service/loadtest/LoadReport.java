@@ -0,0 +1,105 @@
+package com.davi.demo.booking.service.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms per Operation, in microseconds. They resize to fit any recorded value.
+ * Response time is measured from the scheduled send time, so a request delayed by earlier slow
+ * requests counts its waiting time (coordinated omission correction).
+ * Service time is measured from the actual send time, for comparison.
+ */
+class LoadReport {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<Operation, Histogram> responseTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> serviceTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> rejected = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    LoadReport() {
+        for(var operation : Operation.values()) {
+            responseTimes.put(operation, new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+            serviceTimes.put(operation, new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+            rejected.put(operation, new LongAdder());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Record one response, status 0 is a request that failed without a response.
+     * 4xx are expected under load (conflicts) and counted as rejected, 5xx and failures as errors.
+     */
+    void record(Operation operation, long scheduledNanos, long sentNanos, long completedNanos, int status) {
+        responseTimes.get(operation).recordValue(toMicros(completedNanos - scheduledNanos));
+        serviceTimes.get(operation).recordValue(toMicros(completedNanos - sentNanos));
+        if(status >= 500 || status == 0) {
+            errors.get(operation).increment();
+        } else if(status >= 400) {
+            rejected.get(operation).increment();
+        }
+    }
+
+    /**
+     * Drop everything recorded so far, called at the end of the warmup.
+     */
+    void reset() {
+        responseTimes.values().forEach(Histogram::reset);
+        serviceTimes.values().forEach(Histogram::reset);
+        rejected.values().forEach(LongAdder::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    void write(Path path, String settings, Duration elapsed) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try(var out = new PrintStream(Files.newOutputStream(path))) {
+            write(out, settings, elapsed);
+        }
+    }
+
+    void write(PrintStream out, String settings, Duration elapsed) {
+        var total = new Histogram(SIGNIFICANT_DIGITS);
+        responseTimes.values().forEach(total::add);
+        double seconds = elapsed.toMillis() / 1000.0;
+
+        out.println("Settings: " + settings);
+        out.printf("Requests: %d in %.1f s, throughput %.1f req/s%n",
+                total.getTotalCount(), seconds, total.getTotalCount() / seconds);
+        out.println();
+        out.printf("%-16s %8s %8s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "rejected", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms");
+        for(var operation : Operation.values()) {
+            var histogram = responseTimes.get(operation);
+            out.printf("%-16s %8d %8d %8d %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                    operation, histogram.getTotalCount(), rejected.get(operation).sum(), errors.get(operation).sum(),
+                    millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / MICROS_PER_MILLI, millis(serviceTimes.get(operation), 99));
+        }
+        out.printf("%-16s %8d %8s %8s %10.2f %10.2f %10.2f %10.2f%n",
+                "ALL", total.getTotalCount(), "", "",
+                millis(total, 50), millis(total, 99), millis(total, 99.9), total.getMaxValue() / MICROS_PER_MILLI);
+        out.println();
+        out.println("Response time distribution of all requests (ms):");
+        total.outputPercentileDistribution(out, MICROS_PER_MILLI);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,306 @@
+package com.davi.demo.booking.service.loadtest;
+
+import com.davi.demo.booking.service.BookingServiceApplication;
+import com.davi.demo.booking.service.model.Blocking;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.model.Property;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import com.davi.demo.booking.service.repository.PropertyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open model load test of the booking API.
+ * Starts the application on a random port with an in-memory H2 seeded with Properties and Bookings,
+ * then sends the Operation mix at a fixed rate, whatever the response times are.
+ * Arguments are key=value, see Settings for the keys and defaults.
+ * Run with: mvn -Ploadtest test-compile exec:exec -Dloadtest.args="rate=500 duration=60"
+ */
+public class LoadTest {
+
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int CREATED_FIRST_DAY = 1_000;
+    private static final int BLOCKING_FIRST_DAY = 100_000;
+    private static final int DAYS = 50_000;
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Settings settings;
+    private final LoadReport report = new LoadReport();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final SplittableRandom random;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private String baseUrl;
+    private List<Long> propertyIds;
+    private List<Booking> bookings;
+
+    LoadTest(Settings settings) {
+        this.settings = settings;
+        this.random = new SplittableRandom(settings.seed());
+    }
+
+    public static void main(String[] args) throws Exception {
+        var settings = Settings.parse(args);
+        var loadTest = new LoadTest(settings);
+        try {
+            loadTest.start();
+            var elapsed = loadTest.run();
+            loadTest.report.write(System.out, settings.toString(), elapsed);
+            loadTest.report.write(settings.report(), settings.toString(), elapsed);
+            System.out.println("Report written to " + settings.report().toAbsolutePath());
+        } finally {
+            loadTest.stop();
+        }
+    }
+
+    void start() {
+        context = new SpringApplicationBuilder(BookingServiceApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "--booking.reactive.url=r2dbc:h2:mem:///loadtest",
+                        "--spring.liquibase.contexts=loadtest",
+                        "--logging.level.root=WARN");
+        objectMapper = context.getBean(ObjectMapper.class);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        clientExecutor = Executors.newFixedThreadPool(settings.clientThreads());
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        seed();
+    }
+
+    void stop() {
+        if(clientExecutor != null) {
+            clientExecutor.shutdownNow();
+        }
+        if(context != null) {
+            context.close();
+        }
+    }
+
+    /**
+     * Send one request every 1/rate seconds from the scheduled time of the previous one.
+     * Requests scheduled during the warmup are not recorded.
+     * Return the measured duration.
+     */
+    Duration run() throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(settings.warmup());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(settings.duration());
+
+        for(long i = 0; ; i++) {
+            long scheduled = start + i * interval;
+            if(scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if(wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(Operation.pick(random.nextInt(100)), scheduled, scheduled >= measureFrom);
+        }
+        long drainUntil = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while(inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+        return Duration.ofNanos(end - measureFrom);
+    }
+
+    private void send(Operation operation, long scheduled, boolean measured) {
+        var request = request(operation);
+        inFlight.incrementAndGet();
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    try {
+                        if(measured) {
+                            report.record(operation, scheduled, sent, System.nanoTime(),
+                                    error == null ? response.statusCode() : 0);
+                        }
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+    }
+
+    private HttpRequest request(Operation operation) {
+        return switch(operation) {
+            case GET_BOOKING -> get("/api/guest/bookings/" + anyBooking().getId());
+            case LIST_BOOKINGS -> get("/api/guest/bookings?size=20&propertyId=" + anyPropertyId());
+            case CREATE_BOOKING -> post("/api/guest/bookings", newBooking());
+            case UPDATE_BOOKING -> put("/api/guest/bookings/", movedBooking(false));
+            case CANCEL_BOOKING -> put("/api/guest/bookings/", movedBooking(true));
+            case CREATE_BLOCKING -> post("/api/host/blockings", newBlocking());
+        };
+    }
+
+    private Booking newBooking() {
+        var booking = new Booking();
+        booking.setName("load test");
+        booking.setProperty(property(anyPropertyId()));
+        booking.setStartDate(FIRST_DAY.plusDays(CREATED_FIRST_DAY + random.nextInt(DAYS)).plusHours(random.nextInt(20)));
+        booking.setEndDate(booking.getStartDate().plusHours(1 + random.nextInt(3)));
+        return booking;
+    }
+
+    /**
+     * A seeded Booking moved within its own day, canceled or re-booked.
+     */
+    private Booking movedBooking(boolean canceled) {
+        var seeded = anyBooking();
+        var booking = new Booking();
+        booking.setId(seeded.getId());
+        booking.setName(seeded.getName());
+        booking.setProperty(seeded.getProperty());
+        booking.setIsCanceled(canceled);
+        booking.setStartDate(seeded.getStartDate().plusHours(random.nextInt(4)));
+        booking.setEndDate(booking.getStartDate().plusHours(2));
+        return booking;
+    }
+
+    private Blocking newBlocking() {
+        var blocking = new Blocking();
+        blocking.setName("load test");
+        blocking.setProperty(property(anyPropertyId()));
+        blocking.setStartDate(FIRST_DAY.plusDays(BLOCKING_FIRST_DAY + random.nextInt(DAYS)));
+        blocking.setEndDate(blocking.getStartDate().plusDays(1));
+        return blocking;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(toJson(body)))
+                .build();
+    }
+
+    private HttpRequest put(String path, Booking booking) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path + booking.getId()))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(toJson(booking)))
+                .build();
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Long anyPropertyId() {
+        return propertyIds.get(random.nextInt(propertyIds.size()));
+    }
+
+    private Booking anyBooking() {
+        return bookings.get(random.nextInt(bookings.size()));
+    }
+
+    /**
+     * Properties with one Booking from 10:00 to 12:00 on each of the first days.
+     */
+    private void seed() {
+        var properties = new ArrayList<Property>();
+        for(int i = 0; i < settings.properties(); i++) {
+            var property = new Property();
+            property.setName("House " + i);
+            properties.add(property);
+        }
+        properties = new ArrayList<>(context.getBean(PropertyRepository.class).saveAll(properties));
+        propertyIds = properties.stream().map(Property::getId).toList();
+
+        var seeded = new ArrayList<Booking>();
+        for(var property : properties) {
+            for(int day = 0; day < settings.bookingsPerProperty(); day++) {
+                var booking = new Booking();
+                booking.setName("booking " + day);
+                booking.setProperty(property);
+                booking.setStartDate(FIRST_DAY.plusDays(day).plusHours(10));
+                booking.setEndDate(FIRST_DAY.plusDays(day).plusHours(12));
+                seeded.add(booking);
+            }
+        }
+        bookings = context.getBean(BookingRepository.class).saveAll(seeded);
+    }
+
+    private static Property property(Long id) {
+        var property = new Property();
+        property.setId(id);
+        return property;
+    }
+
+    /**
+     * rate: requests per second, duration and warmup: seconds,
+     * properties and bookingsPerProperty: seeded data, clientThreads: HTTP client threads,
+     * seed: random seed, report: report file.
+     */
+    record Settings(int rate, int duration, int warmup, int properties, int bookingsPerProperty,
+                    int clientThreads, long seed, Path report) {
+
+        static Settings parse(String[] args) {
+            var values = new HashMap<String, String>();
+            for(var arg : args) {
+                int separator = arg.indexOf('=');
+                if(separator < 1) {
+                    throw new IllegalArgumentException("Arguments must be key=value: " + arg);
+                }
+                values.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+            var settings = new Settings(
+                    intValue(values, "rate", 200),
+                    intValue(values, "duration", 60),
+                    intValue(values, "warmup", 10),
+                    intValue(values, "properties", 100),
+                    intValue(values, "bookingsPerProperty", 20),
+                    intValue(values, "clientThreads", 16),
+                    Long.parseLong(values.getOrDefault("seed", "42")),
+                    Path.of(values.getOrDefault("report", "target/loadtest/report.txt")));
+            if(!values.keySet().stream().allMatch(KEYS::contains)) {
+                throw new IllegalArgumentException("Unknown argument, expected one of " + KEYS);
+            }
+            return settings;
+        }
+
+        private static final List<String> KEYS = List.of("rate", "duration", "warmup", "properties",
+                "bookingsPerProperty", "clientThreads", "seed", "report");
+
+        private static int intValue(Map<String, String> values, String key, int defaultValue) {
+            int value = Integer.parseInt(values.getOrDefault(key, String.valueOf(defaultValue)));
+            if(value < 0 || (value == 0 && !key.equals("warmup"))) {
+                throw new IllegalArgumentException(key + " must be positive");
+            }
+            return value;
+        }
+    }
+}
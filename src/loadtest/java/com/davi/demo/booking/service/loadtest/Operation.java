@@ -0,0 +1,35 @@
+package com.davi.demo.booking.service.loadtest;
+
+/**
+ * Requests of the mixed workload, weight is the share of requests out of 100.
+ */
+enum Operation {
+    GET_BOOKING(30),
+    LIST_BOOKINGS(30),
+    CREATE_BOOKING(20),
+    UPDATE_BOOKING(10),
+    CANCEL_BOOKING(5),
+    CREATE_BLOCKING(5);
+
+    private static final int TOTAL_WEIGHT = 100;
+
+    final int weight;
+
+    Operation(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * Pick the operation for a number in [0, 100).
+     */
+    static Operation pick(int value) {
+        int bound = 0;
+        for(var operation : values()) {
+            bound += operation.weight;
+            if(value < bound) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("value must be below " + TOTAL_WEIGHT);
+    }
+}
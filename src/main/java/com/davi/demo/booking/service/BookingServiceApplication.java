@@ -2,8 +2,15 @@ package com.davi.demo.booking.service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
-@SpringBootApplication
+/**
+ * R2DBC auto configuration is excluded: a ConnectionFactory bean would turn off the JDBC DataSource
+ * and a second transaction manager would make @Transactional ambiguous.
+ * ReactiveReadRepository manages its own R2DBC pool.
+ */
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class BookingServiceApplication {
 
 	public static void main(String[] args) {
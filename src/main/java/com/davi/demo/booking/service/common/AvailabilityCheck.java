@@ -0,0 +1,14 @@
+package com.davi.demo.booking.service.common;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * One item of a batch availability request: is the Property free during [startDate, endDate).
+ */
+public record AvailabilityCheck(
+        Long propertyId,
+        @JsonFormat(pattern = DateUtil.DATE_FORMAT) LocalDateTime startDate,
+        @JsonFormat(pattern = DateUtil.DATE_FORMAT) LocalDateTime endDate) {
+}
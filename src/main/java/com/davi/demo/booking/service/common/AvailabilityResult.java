@@ -0,0 +1,20 @@
+package com.davi.demo.booking.service.common;
+
+import com.davi.demo.booking.service.exception.BaseException;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Answer to one item of a batch availability request, in the same position as the request item.
+ * Invalid items have no available flag, but the status and error the single availability request would answer.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AvailabilityResult(int index, Boolean available, Integer status, String error) {
+
+    public static AvailabilityResult of(int index, boolean available) {
+        return new AvailabilityResult(index, available, null, null);
+    }
+
+    public static AvailabilityResult failed(int index, BaseException e) {
+        return new AvailabilityResult(index, null, e.getStatus().value(), e.getMessage());
+    }
+}
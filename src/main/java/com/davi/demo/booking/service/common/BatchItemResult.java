@@ -0,0 +1,21 @@
+package com.davi.demo.booking.service.common;
+
+import com.davi.demo.booking.service.exception.BaseException;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Result of one item of a batch request, in the same position as the request item.
+ * status is the code the single item request would answer.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResult(int index, int status, Long id, String error) {
+
+    public static BatchItemResult created(int index, Long id) {
+        return new BatchItemResult(index, HttpStatus.CREATED.value(), id, null);
+    }
+
+    public static BatchItemResult failed(int index, BaseException e) {
+        return new BatchItemResult(index, e.getStatus().value(), null, e.getMessage());
+    }
+}
@@ -0,0 +1,7 @@
+package com.davi.demo.booking.service.common;
+
+/**
+ * Response of a Blocking create or update, with the number of Bookings it canceled.
+ */
+public record BlockingResult(Long id, int canceledBookings) {
+}
@@ -0,0 +1,26 @@
+package com.davi.demo.booking.service.common;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Blocking as returned by the read endpoints, serialized like Blocking.
+ * Selected column by column, so nothing is added to the persistence context.
+ */
+public record BlockingView(
+        Long id,
+        String name,
+        @JsonFormat(pattern = DateUtil.DATE_FORMAT) LocalDateTime startDate,
+        @JsonFormat(pattern = DateUtil.DATE_FORMAT) LocalDateTime endDate,
+        PropertyView property,
+        Long version) {
+
+    /**
+     * Constructor of the JPQL and criteria projections, which select the Property columns one by one.
+     */
+    public BlockingView(Long id, String name, LocalDateTime startDate, LocalDateTime endDate,
+                        Long propertyId, String propertyName, Long version) {
+        this(id, name, startDate, endDate, new PropertyView(propertyId, propertyName), version);
+    }
+}
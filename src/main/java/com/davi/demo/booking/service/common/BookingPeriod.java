@@ -0,0 +1,9 @@
+package com.davi.demo.booking.service.common;
+
+import java.time.LocalDateTime;
+
+/**
+ * Id and period of a Booking, read without loading the entity.
+ */
+public record BookingPeriod(Long id, LocalDateTime startDate, LocalDateTime endDate) {
+}
@@ -0,0 +1,28 @@
+package com.davi.demo.booking.service.common;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Booking as returned by the read endpoints, serialized like Booking.
+ * Selected column by column, so nothing is added to the persistence context.
+ */
+public record BookingView(
+        Long id,
+        String name,
+        String description,
+        @JsonFormat(pattern = DateUtil.DATE_FORMAT) LocalDateTime startDate,
+        @JsonFormat(pattern = DateUtil.DATE_FORMAT) LocalDateTime endDate,
+        Boolean isCanceled,
+        PropertyView property,
+        Long version) {
+
+    /**
+     * Constructor of the JPQL and criteria projections, which select the Property columns one by one.
+     */
+    public BookingView(Long id, String name, String description, LocalDateTime startDate, LocalDateTime endDate,
+                       Boolean isCanceled, Long propertyId, String propertyName, Long version) {
+        this(id, name, description, startDate, endDate, isCanceled, new PropertyView(propertyId, propertyName), version);
+    }
+}
@@ -0,0 +1,33 @@
+package com.davi.demo.booking.service.common;
+
+import com.davi.demo.booking.service.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position of a list page, the (startDate, id) of the last returned row.
+ * Encoded as an opaque url-safe string.
+ */
+public record Cursor(LocalDateTime startDate, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        var value = DateUtil.format(startDate) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String cursor) {
+        try {
+            var value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            var startDate = DateUtil.parse(value.substring(0, separator));
+            return new Cursor(startDate, Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
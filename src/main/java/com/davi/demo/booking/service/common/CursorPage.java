@@ -0,0 +1,34 @@
+package com.davi.demo.booking.service.common;
+
+import com.davi.demo.booking.service.exception.ValidationException;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset paginated list.
+ * nextCursor is null on the last page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int MAX_SIZE = 500;
+
+    public static void validateSize(int size) {
+        if(size < 1 || size > MAX_SIZE) {
+            throw new ValidationException("size must be between 1 and {0}", MAX_SIZE);
+        }
+    }
+
+    /**
+     * Build a page from rows fetched with limit size + 1.
+     * The extra row only tells that there is a next page.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Cursor> cursorOf) {
+        if(rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        var items = rows.subList(0, size);
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)).encode());
+    }
+}
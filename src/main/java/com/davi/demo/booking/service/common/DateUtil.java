@@ -4,6 +4,7 @@ import com.davi.demo.booking.service.exception.ValidationException;
 
 import java.time.DateTimeException;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 
 public class DateUtil {
@@ -14,10 +15,24 @@ public class DateUtil {
         try {
             return LocalDateTime.parse(date.trim(), formatter);
         } catch (DateTimeException e) {
-            throw new ValidationException("Invalid date format, correct format is {0}", DATE_FORMAT);
+            throw invalidFormat();
         }
     }
 
+    /**
+     * Error for a date not in DATE_FORMAT, from a request parameter or a JSON body
+     */
+    public static ValidationException invalidFormat() {
+        return new ValidationException("Invalid date format, correct format is {0}", DATE_FORMAT);
+    }
+
+    /**
+     * Seconds since epoch, dates have no time zone so UTC is used as reference
+     */
+    public static long toEpochSecond(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC);
+    }
+
     public static String format(LocalDateTime date) {
         try {
             return date.format(formatter);
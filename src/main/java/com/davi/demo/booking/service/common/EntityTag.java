@@ -0,0 +1,59 @@
+package com.davi.demo.booking.service.common;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Strong ETags of Bookings and Blockings, the quoted entity version.
+ */
+public class EntityTag {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * If-None-Match matches "*" or any tag of the list, weak tags are compared by value.
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, long version) {
+        if(ifNoneMatch == null) {
+            return false;
+        }
+        var tag = of(version);
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(value -> value.startsWith(WEAK_PREFIX) ? value.substring(WEAK_PREFIX.length()) : value)
+                .anyMatch(value -> value.equals(ANY) || value.equals(tag));
+    }
+
+    /**
+     * Versions accepted by If-Match, null when there is no header or it has "*".
+     * Each strong tag of the list adds its version, weak and unknown tags never match,
+     * so a header without a valid strong tag returns an empty set.
+     */
+    public static Set<Long> requiredVersions(String ifMatch) {
+        if(ifMatch == null) {
+            return null;
+        }
+        var versions = new HashSet<Long>();
+        for(var value : ifMatch.split(",")) {
+            value = value.trim();
+            if(value.equals(ANY)) {
+                return null;
+            }
+            if(value.length() < 3 || !value.startsWith("\"") || !value.endsWith("\"")) {
+                continue;
+            }
+            try {
+                versions.add(Long.parseLong(value.substring(1, value.length() - 1)));
+            } catch (NumberFormatException e) {
+                // not a tag of this service, it never matches
+            }
+        }
+        return versions;
+    }
+}
@@ -1,10 +1,7 @@
 package com.davi.demo.booking.service.common;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-
-@Data
-@AllArgsConstructor
-public class ErrorResponse {
-    private String error;
+/**
+ * Error payload of every failed request, immutable so constant messages can share one instance.
+ */
+public record ErrorResponse(String error) {
 }
@@ -0,0 +1,211 @@
+package com.davi.demo.booking.service.common;
+
+import java.util.function.Consumer;
+
+/**
+ * Self-balancing (AVL) interval tree of half-open intervals [start, end).
+ * Nodes are ordered by (start, id) and augmented with the max end of their subtree,
+ * so an overlap lookup only descends into subtrees that can contain a match.
+ * Not thread safe, callers must synchronize.
+ */
+public class IntervalTree {
+
+    public static final long NOT_FOUND = -1L;
+
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(long start, long end, long id) {
+        root = insert(root, new Node(start, end, id));
+    }
+
+    public boolean remove(long start, long id) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    /**
+     * Return the id of any interval overlapping [start, end), ignoring excludedId,
+     * or NOT_FOUND if there is none.
+     */
+    public long findOverlap(long start, long end, Long excludedId) {
+        Node node = findOverlap(root, start, end, excludedId);
+        return node == null ? NOT_FOUND : node.id;
+    }
+
+    /**
+     * Visit every interval overlapping [start, end) in start order.
+     */
+    public void forEachOverlap(long start, long end, Consumer<Interval> consumer) {
+        forEachOverlap(root, start, end, consumer);
+    }
+
+    public void forEach(Consumer<Interval> consumer) {
+        forEachOverlap(root, Long.MIN_VALUE, Long.MAX_VALUE, consumer);
+    }
+
+    public record Interval(long start, long end, long id) {
+    }
+
+    private Node findOverlap(Node node, long start, long end, Long excludedId) {
+        if(node == null || node.maxEnd <= start) {
+            return null;
+        }
+        Node found = findOverlap(node.left, start, end, excludedId);
+        if(found != null) {
+            return found;
+        }
+        if(node.start >= end) {
+            return null;
+        }
+        if(node.end > start && (excludedId == null || node.id != excludedId)) {
+            return node;
+        }
+        return findOverlap(node.right, start, end, excludedId);
+    }
+
+    private void forEachOverlap(Node node, long start, long end, Consumer<Interval> consumer) {
+        if(node == null || node.maxEnd <= start) {
+            return;
+        }
+        forEachOverlap(node.left, start, end, consumer);
+        if(node.start >= end) {
+            return;
+        }
+        if(node.end > start) {
+            consumer.accept(new Interval(node.start, node.end, node.id));
+        }
+        forEachOverlap(node.right, start, end, consumer);
+    }
+
+    private Node insert(Node node, Node newNode) {
+        if(node == null) {
+            size++;
+            return newNode;
+        }
+        int cmp = compare(newNode.start, newNode.id, node);
+        if(cmp < 0) {
+            node.left = insert(node.left, newNode);
+        } else if(cmp > 0) {
+            node.right = insert(node.right, newNode);
+        } else {
+            node.end = newNode.end;
+        }
+        return balance(node);
+    }
+
+    private Node remove(Node node, long start, long id) {
+        if(node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if(cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else if(cmp > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            if(node.left == null) {
+                return node.right;
+            }
+            if(node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while(successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if(node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private static int compare(long start, long id, Node node) {
+        int cmp = Long.compare(start, node.start);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if(factor > 1) {
+            if(height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if(factor < -1) {
+            if(height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if(node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if(node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node {
+        private final long start;
+        private final long id;
+        private long end;
+        private long maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long start, long end, long id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.davi.demo.booking.service.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Write each accepted value as the next element of a JSON array.
+ * The array is closed by close().
+ */
+public class JsonArrayWriter<T> implements Consumer<T>, AutoCloseable {
+
+    private final SequenceWriter writer;
+
+    public JsonArrayWriter(ObjectMapper objectMapper, Class<T> type, OutputStream out) throws IOException {
+        this.writer = objectMapper.writerFor(type).writeValuesAsArray(out);
+    }
+
+    @Override
+    public void accept(T value) {
+        try {
+            writer.write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,21 @@
+package com.davi.demo.booking.service.common;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters for Booking and Blocking lists, null means no filter.
+ * from/to select entries overlapping that window.
+ * isCanceled only applies to Bookings.
+ */
+public record ListFilter(Long propertyId, LocalDateTime from, LocalDateTime to, Boolean isCanceled) {
+
+    /**
+     * Build a filter from request parameters, from/to must be in DateUtil.DATE_FORMAT
+     */
+    public static ListFilter of(Long propertyId, String from, String to, Boolean isCanceled) {
+        return new ListFilter(propertyId,
+                from == null ? null : DateUtil.parse(from),
+                to == null ? null : DateUtil.parse(to),
+                isCanceled);
+    }
+}
@@ -0,0 +1,35 @@
+package com.davi.demo.booking.service.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Write each accepted value as one line of JSON (newline delimited JSON).
+ */
+public class NdjsonWriter<T> implements Consumer<T> {
+
+    private static final int NEW_LINE = '\n';
+
+    private final ObjectWriter writer;
+    private final OutputStream out;
+
+    public NdjsonWriter(ObjectMapper objectMapper, Class<T> type, OutputStream out) {
+        this.writer = objectMapper.writerFor(type);
+        this.out = out;
+    }
+
+    @Override
+    public void accept(T value) {
+        try {
+            out.write(writer.writeValueAsBytes(value));
+            out.write(NEW_LINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.davi.demo.booking.service.common;
+
+/**
+ * Property of a BookingView or BlockingView, serialized like Property.
+ */
+public record PropertyView(Long id, String name) {
+}
@@ -0,0 +1,13 @@
+package com.davi.demo.booking.service.common;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * A [startDate, endDate) period of a Property, busy or free.
+ */
+public record TimeSlot(
+        @JsonFormat(pattern = DateUtil.DATE_FORMAT) LocalDateTime startDate,
+        @JsonFormat(pattern = DateUtil.DATE_FORMAT) LocalDateTime endDate) {
+}
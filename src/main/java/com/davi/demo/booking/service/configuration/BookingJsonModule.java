@@ -0,0 +1,241 @@
+package com.davi.demo.booking.service.configuration;
+
+import com.davi.demo.booking.service.common.BlockingView;
+import com.davi.demo.booking.service.common.BookingView;
+import com.davi.demo.booking.service.common.DateUtil;
+import com.davi.demo.booking.service.common.PropertyView;
+import com.davi.demo.booking.service.model.Blocking;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.model.Property;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Streaming serializers of Booking, Blocking, Property and their views, picked up by Spring Boot's ObjectMapper.
+ * They write the fields in the order and format of the reflective bean serializers, with pre-encoded field names
+ * and dates in DateUtil.DATE_FORMAT written without a DateTimeFormatter. Deserialization is unchanged.
+ * A field added to one of these types must be added here too, BookingJsonModuleTest compares both outputs.
+ */
+@Component
+public class BookingJsonModule extends SimpleModule {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString START_DATE = new SerializedString("startDate");
+    private static final SerializableString END_DATE = new SerializedString("endDate");
+    private static final SerializableString IS_CANCELED = new SerializedString("isCanceled");
+    private static final SerializableString PROPERTY = new SerializedString("property");
+    private static final SerializableString VERSION = new SerializedString("version");
+
+    private static final int DATE_LENGTH = DateUtil.DATE_FORMAT.length();
+
+    public BookingJsonModule() {
+        super(BookingJsonModule.class.getSimpleName());
+        addSerializer(new BookingSerializer());
+        addSerializer(new BlockingSerializer());
+        addSerializer(new PropertySerializer());
+        addSerializer(new BookingViewSerializer());
+        addSerializer(new BlockingViewSerializer());
+        addSerializer(new PropertyViewSerializer());
+    }
+
+    static class BookingSerializer extends StdSerializer<Booking> {
+
+        BookingSerializer() {
+            super(Booking.class);
+        }
+
+        @Override
+        public void serialize(Booking booking, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            var property = booking.getProperty();
+            gen.writeStartObject(booking);
+            writeBookingFields(gen, booking.getId(), booking.getName(), booking.getDescription(),
+                    booking.getStartDate(), booking.getEndDate(), booking.getIsCanceled());
+            gen.writeFieldName(PROPERTY);
+            if(property == null) {
+                gen.writeNull();
+            } else {
+                writeProperty(gen, property, property.getId(), property.getName());
+            }
+            writeLong(gen, VERSION, booking.getVersion());
+            gen.writeEndObject();
+        }
+    }
+
+    static class BookingViewSerializer extends StdSerializer<BookingView> {
+
+        BookingViewSerializer() {
+            super(BookingView.class);
+        }
+
+        @Override
+        public void serialize(BookingView booking, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(booking);
+            writeBookingFields(gen, booking.id(), booking.name(), booking.description(),
+                    booking.startDate(), booking.endDate(), booking.isCanceled());
+            writePropertyView(gen, booking.property());
+            writeLong(gen, VERSION, booking.version());
+            gen.writeEndObject();
+        }
+    }
+
+    static class BlockingSerializer extends StdSerializer<Blocking> {
+
+        BlockingSerializer() {
+            super(Blocking.class);
+        }
+
+        @Override
+        public void serialize(Blocking blocking, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            var property = blocking.getProperty();
+            gen.writeStartObject(blocking);
+            writeBlockingFields(gen, blocking.getId(), blocking.getName(), blocking.getStartDate(), blocking.getEndDate());
+            gen.writeFieldName(PROPERTY);
+            if(property == null) {
+                gen.writeNull();
+            } else {
+                writeProperty(gen, property, property.getId(), property.getName());
+            }
+            writeLong(gen, VERSION, blocking.getVersion());
+            gen.writeEndObject();
+        }
+    }
+
+    static class BlockingViewSerializer extends StdSerializer<BlockingView> {
+
+        BlockingViewSerializer() {
+            super(BlockingView.class);
+        }
+
+        @Override
+        public void serialize(BlockingView blocking, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(blocking);
+            writeBlockingFields(gen, blocking.id(), blocking.name(), blocking.startDate(), blocking.endDate());
+            writePropertyView(gen, blocking.property());
+            writeLong(gen, VERSION, blocking.version());
+            gen.writeEndObject();
+        }
+    }
+
+    static class PropertySerializer extends StdSerializer<Property> {
+
+        PropertySerializer() {
+            super(Property.class);
+        }
+
+        @Override
+        public void serialize(Property property, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeProperty(gen, property, property.getId(), property.getName());
+        }
+    }
+
+    static class PropertyViewSerializer extends StdSerializer<PropertyView> {
+
+        PropertyViewSerializer() {
+            super(PropertyView.class);
+        }
+
+        @Override
+        public void serialize(PropertyView property, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeProperty(gen, property, property.id(), property.name());
+        }
+    }
+
+    private static void writeBookingFields(JsonGenerator gen, Long id, String name, String description,
+                                           LocalDateTime startDate, LocalDateTime endDate,
+                                           Boolean isCanceled) throws IOException {
+        writeLong(gen, ID, id);
+        writeString(gen, NAME, name);
+        writeString(gen, DESCRIPTION, description);
+        writeDate(gen, START_DATE, startDate);
+        writeDate(gen, END_DATE, endDate);
+        gen.writeFieldName(IS_CANCELED);
+        if(isCanceled == null) {
+            gen.writeNull();
+        } else {
+            gen.writeBoolean(isCanceled);
+        }
+    }
+
+    private static void writeBlockingFields(JsonGenerator gen, Long id, String name,
+                                            LocalDateTime startDate, LocalDateTime endDate) throws IOException {
+        writeLong(gen, ID, id);
+        writeString(gen, NAME, name);
+        writeDate(gen, START_DATE, startDate);
+        writeDate(gen, END_DATE, endDate);
+    }
+
+    private static void writePropertyView(JsonGenerator gen, PropertyView property) throws IOException {
+        gen.writeFieldName(PROPERTY);
+        if(property == null) {
+            gen.writeNull();
+        } else {
+            writeProperty(gen, property, property.id(), property.name());
+        }
+    }
+
+    private static void writeProperty(JsonGenerator gen, Object property, Long id, String name) throws IOException {
+        gen.writeStartObject(property);
+        writeLong(gen, ID, id);
+        writeString(gen, NAME, name);
+        gen.writeEndObject();
+    }
+
+    private static void writeLong(JsonGenerator gen, SerializableString field, Long value) throws IOException {
+        gen.writeFieldName(field);
+        if(value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeString(JsonGenerator gen, SerializableString field, String value) throws IOException {
+        gen.writeFieldName(field);
+        gen.writeString(value);
+    }
+
+    /**
+     * The pattern prints the year of era, signed past 9999, years outside 1 to 9999 go through DateUtil.formatter.
+     */
+    private static void writeDate(JsonGenerator gen, SerializableString field, LocalDateTime date) throws IOException {
+        gen.writeFieldName(field);
+        if(date == null) {
+            gen.writeNull();
+            return;
+        }
+        int year = date.getYear();
+        if(year < 1 || year > 9999) {
+            gen.writeString(date.format(DateUtil.formatter));
+            return;
+        }
+        var chars = new char[DATE_LENGTH];
+        digits(chars, 0, year / 100);
+        digits(chars, 2, year % 100);
+        chars[4] = '-';
+        digits(chars, 5, date.getMonthValue());
+        chars[7] = '-';
+        digits(chars, 8, date.getDayOfMonth());
+        chars[10] = ' ';
+        digits(chars, 11, date.getHour());
+        chars[13] = ':';
+        digits(chars, 14, date.getMinute());
+        chars[16] = ':';
+        digits(chars, 17, date.getSecond());
+        gen.writeString(chars, 0, DATE_LENGTH);
+    }
+
+    private static void digits(char[] chars, int offset, int value) {
+        chars[offset] = (char) ('0' + value / 10);
+        chars[offset + 1] = (char) ('0' + value % 10);
+    }
+}
@@ -2,29 +2,71 @@ package com.davi.demo.booking.service.configuration;
 
 import com.davi.demo.booking.service.exception.BadRequestException;
 import com.davi.demo.booking.service.exception.BaseException;
+import com.davi.demo.booking.service.exception.ConflictException;
+import com.davi.demo.booking.service.common.DateUtil;
 import com.davi.demo.booking.service.common.ErrorResponse;
 import com.davi.demo.booking.service.exception.NotFoundException;
+import com.davi.demo.booking.service.exception.PreconditionFailedException;
+import com.davi.demo.booking.service.exception.ServiceUnavailableException;
 import com.davi.demo.booking.service.exception.ValidationException;
+import com.davi.demo.booking.service.service.BookingMetrics;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.http.HttpStatus;
 
+import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @RestControllerAdvice
 public class ResponseExceptionHandler {
 
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private static final int MAX_CACHED_RESPONSES = 256;
+
+    private final BookingMetrics bookingMetrics;
+    private final Map<String, ErrorResponse> constantResponses = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ResponseExceptionHandler(BookingMetrics bookingMetrics) {
+        this.bookingMetrics = bookingMetrics;
+    }
+
     /**
      * Handle all manually throw exceptions
      * Response code depends on the exception
+     * The payload of a constant message is built once and reused.
      */
-    @ExceptionHandler(value = {NotFoundException.class, BadRequestException.class, ValidationException.class})
+    @ExceptionHandler(value = {NotFoundException.class, BadRequestException.class, ValidationException.class,
+            PreconditionFailedException.class, ConflictException.class, ServiceUnavailableException.class})
     public ResponseEntity<ErrorResponse> handleCustomException(BaseException e) {
-        var errorResponse = new ErrorResponse(e.getMessage());
-        return new ResponseEntity<>(errorResponse, e.getStatus());
+        bookingMetrics.validationFailed(e.getClass());
+        return new ResponseEntity<>(errorResponse(e), e.getStatus());
+    }
+
+    private ErrorResponse errorResponse(BaseException e) {
+        if(!e.isConstantMessage()) {
+            return new ErrorResponse(e.getMessage());
+        }
+        var errorResponse = constantResponses.get(e.getMessage());
+        if(errorResponse == null) {
+            errorResponse = new ErrorResponse(e.getMessage());
+            if(constantResponses.size() < MAX_CACHED_RESPONSES) {
+                constantResponses.putIfAbsent(e.getMessage(), errorResponse);
+            }
+        }
+        return errorResponse;
     }
 
     /**
@@ -33,6 +75,7 @@ public class ResponseExceptionHandler {
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
+        bookingMetrics.validationFailed(ex.getClass());
         String message = Optional.ofNullable(ex.getBindingResult().getFieldError())
                 .map(DefaultMessageSourceResolvable::getDefaultMessage)
                 .orElse(null);
@@ -40,6 +83,54 @@ public class ResponseExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handle request parameters that cannot be converted, like a non numeric page size
+     * Response code is BadRequest 400
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatchException(MethodArgumentTypeMismatchException ex) {
+        bookingMetrics.validationFailed(ex.getClass());
+        var errorResponse = new ErrorResponse(ex.getName() + " has an invalid value");
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handle required request parameters that are missing, like the from date of the availability
+     * Response code is BadRequest 400
+     */
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<ErrorResponse> handleMissingParameterException(MissingServletRequestParameterException ex) {
+        bookingMetrics.validationFailed(ex.getClass());
+        var errorResponse = new ErrorResponse(ex.getParameterName() + " is required");
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handle JSON bodies that cannot be read.
+     * A date not in DateUtil.DATE_FORMAT is a BadRequest 400 with the expected format,
+     * anything else is handled as an uncaught exception.
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> handleNotReadableException(HttpMessageNotReadableException ex) {
+        if(ex.getCause() instanceof InvalidFormatException cause && cause.getTargetType() == LocalDateTime.class) {
+            return handleCustomException(DateUtil.invalidFormat());
+        }
+        return handleGeneralExceptions(ex);
+    }
+
+    /**
+     * Handle a database connection not available within spring.datasource.hikari.connection-timeout.
+     * The pool bounds concurrent requests, so callers are told to retry.
+     * Response code is Service Unavailable 503
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorResponse> handleCannotCreateTransactionException(CannotCreateTransactionException ex) {
+        var errorResponse = new ErrorResponse("Service is busy, try again later");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(errorResponse);
+    }
+
     /**
      * Handle uncaught exceptions to return Error payload with Exception Message
      * Some ValidationException may be wrapped in JPAException.
@@ -48,14 +139,9 @@ public class ResponseExceptionHandler {
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGeneralExceptions(Exception e) {
-        return Optional.ofNullable(e.getCause())
-                .map(Throwable::getCause)
-                .filter(ValidationException.class::isInstance)
-                .map(ValidationException.class::cast)
-                .map(this::handleCustomException)
-                .orElseGet(() -> {
-                    var errorResponse = new ErrorResponse(e.getMessage());
-                    return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
-                });
+        if(e.getCause() != null && e.getCause().getCause() instanceof ValidationException validationException) {
+            return handleCustomException(validationException);
+        }
+        return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 }
\ No newline at end of file
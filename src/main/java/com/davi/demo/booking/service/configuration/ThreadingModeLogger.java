@@ -0,0 +1,40 @@
+package com.davi.demo.booking.service.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Log how requests are executed.
+ * spring.threads.virtual.enabled serves requests on virtual threads, Spring Boot only applies it on Java 21+.
+ * Either way the Hikari pool (spring.datasource.hikari.maximum-pool-size) bounds concurrent database work.
+ */
+@Slf4j
+@Component
+public class ThreadingModeLogger {
+
+    static final int VIRTUAL_THREADS_JAVA_VERSION = 21;
+
+    private final boolean virtualThreads;
+    private final int maximumPoolSize;
+
+    public ThreadingModeLogger(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                               @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+        this.virtualThreads = virtualThreads;
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logThreadingMode() {
+        if(!virtualThreads) {
+            log.info("Requests run on platform threads, database connections limited to {}", maximumPoolSize);
+        } else if(Runtime.version().feature() < VIRTUAL_THREADS_JAVA_VERSION) {
+            log.warn("spring.threads.virtual.enabled requires Java {}, running on Java {} with platform threads",
+                    VIRTUAL_THREADS_JAVA_VERSION, Runtime.version().feature());
+        } else {
+            log.info("Requests run on virtual threads, database connections limited to {}", maximumPoolSize);
+        }
+    }
+}
@@ -1,20 +1,37 @@
 package com.davi.demo.booking.service.controller;
 
+import com.davi.demo.booking.service.common.BlockingResult;
+import com.davi.demo.booking.service.common.BlockingView;
+import com.davi.demo.booking.service.common.CursorPage;
+import com.davi.demo.booking.service.common.EntityTag;
+import com.davi.demo.booking.service.common.ListFilter;
+import com.davi.demo.booking.service.common.NdjsonWriter;
 import com.davi.demo.booking.service.exception.BadRequestException;
 import com.davi.demo.booking.service.model.Blocking;
 import com.davi.demo.booking.service.service.BlockingService;
+import com.davi.demo.booking.service.service.BookingMetrics;
+import com.davi.demo.booking.service.service.IdempotencyStore;
+import com.davi.demo.booking.service.service.OptimisticRetry;
+import com.davi.demo.booking.service.service.UpdateBase;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -24,40 +41,120 @@ import java.util.List;
 public class BlockingController {
 
     private final BlockingService blockingService;
+    private final IdempotencyStore idempotencyStore;
+    private final OptimisticRetry optimisticRetry;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public BlockingController(BlockingService blockingService) {
+    public BlockingController(BlockingService blockingService,
+                              IdempotencyStore idempotencyStore,
+                              OptimisticRetry optimisticRetry,
+                              ObjectMapper objectMapper) {
         this.blockingService = blockingService;
+        this.idempotencyStore = idempotencyStore;
+        this.optimisticRetry = optimisticRetry;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * Get a Blocking with its version as ETag.
+     * When If-None-Match has the current ETag the response is 304, only the version is read.
+     */
     @GetMapping("/blockings/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public Blocking getBlockingById(@PathVariable String id) {
-        return blockingService.getBlockingById(toLong(id));
+    public ResponseEntity<BlockingView> getBlockingById(@PathVariable String id,
+                                                    @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var blockingId = toLong(id);
+        if(ifNoneMatch != null) {
+            var version = blockingService.getBlockingVersion(blockingId);
+            if(EntityTag.matchesIfNoneMatch(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(EntityTag.of(version)).build();
+            }
+        }
+        var blocking = blockingService.getBlockingById(blockingId);
+        return ResponseEntity.ok().eTag(EntityTag.of(blocking.version())).body(blocking);
     }
 
+    /**
+     * List Blockings ordered by startDate, one page at a time.
+     * When there are more results the X-Next-Cursor header holds the cursor of the next page.
+     */
     @GetMapping("/blockings")
-    @ResponseStatus(HttpStatus.OK)
-    public List<Blocking> getAllBlockings() {
-        return blockingService.getAllBlockings();
+    public ResponseEntity<List<BlockingView>> getAllBlockings(
+            @RequestParam(required = false) String propertyId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        var filter = ListFilter.of(propertyId == null ? null : toLong(propertyId), from, to, null);
+        var page = blockingService.getBlockings(filter, cursor, size);
+        var response = ResponseEntity.ok();
+        if(page.nextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
     }
 
+    /**
+     * Export Blockings as newline delimited JSON, written while they are read from the database.
+     * Accept the same filters as the list.
+     */
+    @GetMapping("/blockings/export")
+    public ResponseEntity<StreamingResponseBody> exportBlockings(
+            @RequestParam(required = false) String propertyId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        var filter = ListFilter.of(propertyId == null ? null : toLong(propertyId), from, to, null);
+
+        StreamingResponseBody body = out ->
+                blockingService.exportBlockings(filter, new NdjsonWriter<>(objectMapper, BlockingView.class, out));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Create a Blocking, the response has its id and the number of Bookings it canceled.
+     * A retry with the same Idempotency-Key gets the first response
+     * with the Idempotent-Replayed header, without creating the Blocking again.
+     */
     @PostMapping("/blockings")
-    @ResponseStatus(HttpStatus.CREATED)
-    public void createBlocking(@Valid @RequestBody Blocking blocking) {
-        blockingService.createBlocking(blocking);
+    public ResponseEntity<BlockingResult> createBlocking(@RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+                                                         @Valid @RequestBody Blocking blocking) {
+        var result = idempotencyStore.execute(BookingMetrics.BLOCKING, idempotencyKey, blocking,
+                () -> blockingService.createBlocking(blocking));
+        var response = ResponseEntity.status(HttpStatus.CREATED);
+        if(result.replayed()) {
+            response.header(IdempotencyStore.REPLAYED_HEADER, "true");
+        }
+        return response.body(result.value());
     }
 
+    /**
+     * Update a Blocking, with If-Match only when the ETag is still current, otherwise 412.
+     * A version in the body must be current, otherwise 409.
+     * Lost races with concurrent writes are retried when they changed other fields, see OptimisticRetry.
+     */
     @PutMapping("/blockings/{id}")
     @ResponseStatus(HttpStatus.OK)
-    public void createBlocking(@PathVariable String id, @Valid @RequestBody Blocking blocking) {
-        blockingService.updateBlocking(toLong(id), blocking);
+    public BlockingResult updateBlocking(@PathVariable String id,
+                                         @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                         @Valid @RequestBody Blocking blocking) {
+        var blockingId = toLong(id);
+        var base = new UpdateBase();
+        return optimisticRetry.run(BookingMetrics.BLOCKING, blockingId,
+                () -> blockingService.updateBlocking(blockingId, blocking, EntityTag.requiredVersions(ifMatch), base));
     }
 
+    /**
+     * Delete a Blocking, with If-Match only when the ETag is still current, otherwise 412.
+     */
     @DeleteMapping("/blockings/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteBlocking(@PathVariable String id) {
-        blockingService.deleteBlocking(toLong(id));
+    public void deleteBlocking(@PathVariable String id,
+                               @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var blockingId = toLong(id);
+        optimisticRetry.run(BookingMetrics.BLOCKING, blockingId,
+                () -> blockingService.deleteBlocking(blockingId, EntityTag.requiredVersions(ifMatch)));
     }
 
     private long toLong(String id) {
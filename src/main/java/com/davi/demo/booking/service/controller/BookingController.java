@@ -1,21 +1,46 @@
 package com.davi.demo.booking.service.controller;
 
+import com.davi.demo.booking.service.common.BatchItemResult;
+import com.davi.demo.booking.service.common.BookingView;
+import com.davi.demo.booking.service.common.CursorPage;
+import com.davi.demo.booking.service.common.DateUtil;
+import com.davi.demo.booking.service.common.EntityTag;
+import com.davi.demo.booking.service.common.ListFilter;
+import com.davi.demo.booking.service.common.NdjsonWriter;
 import com.davi.demo.booking.service.exception.BadRequestException;
 import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.service.BookingBatchService;
+import com.davi.demo.booking.service.service.BookingMetrics;
 import com.davi.demo.booking.service.service.BookingService;
+import com.davi.demo.booking.service.service.IdempotencyStore;
+import com.davi.demo.booking.service.service.OptimisticRetry;
+import com.davi.demo.booking.service.service.UpdateBase;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 
@@ -24,40 +49,159 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingBatchService bookingBatchService;
+    private final IdempotencyStore idempotencyStore;
+    private final OptimisticRetry optimisticRetry;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService,
+                             BookingBatchService bookingBatchService,
+                             IdempotencyStore idempotencyStore,
+                             OptimisticRetry optimisticRetry,
+                             ObjectMapper objectMapper) {
         this.bookingService = bookingService;
+        this.bookingBatchService = bookingBatchService;
+        this.idempotencyStore = idempotencyStore;
+        this.optimisticRetry = optimisticRetry;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * Get a Booking with its version as ETag.
+     * When If-None-Match has the current ETag the response is 304, only the version is read.
+     */
     @GetMapping("/bookings/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public Booking getBookingById(@PathVariable String id) {
-        return bookingService.getBookingById(toLong(id));
+    public ResponseEntity<BookingView> getBookingById(@PathVariable String id,
+                                                  @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var bookingId = toLong(id);
+        if(ifNoneMatch != null) {
+            var version = bookingService.getBookingVersion(bookingId);
+            if(EntityTag.matchesIfNoneMatch(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(EntityTag.of(version)).build();
+            }
+        }
+        var booking = bookingService.getBookingById(bookingId);
+        return ResponseEntity.ok().eTag(EntityTag.of(booking.version())).body(booking);
     }
 
+    /**
+     * List Bookings ordered by startDate, one page at a time.
+     * When there are more results the X-Next-Cursor header holds the cursor of the next page.
+     */
     @GetMapping("/bookings")
-    @ResponseStatus(HttpStatus.OK)
-    public List<Booking> getAllBookings() {
-        return bookingService.getAllBookings();
+    public ResponseEntity<List<BookingView>> getAllBookings(
+            @RequestParam(required = false) String propertyId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Boolean isCanceled,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        var filter = ListFilter.of(propertyId == null ? null : toLong(propertyId), from, to, isCanceled);
+        var page = bookingService.getBookings(filter, cursor, size);
+        var response = ResponseEntity.ok();
+        if(page.nextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
     }
 
+    /**
+     * Export Bookings as newline delimited JSON, written while they are read from the database.
+     * Accept the same filters as the list.
+     */
+    @GetMapping("/bookings/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(required = false) String propertyId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Boolean isCanceled) {
+        var filter = ListFilter.of(propertyId == null ? null : toLong(propertyId), from, to, isCanceled);
+
+        StreamingResponseBody body = out ->
+                bookingService.exportBookings(filter, new NdjsonWriter<>(objectMapper, BookingView.class, out));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Create a Booking. A retry with the same Idempotency-Key gets the first response
+     * with the Idempotent-Replayed header, without creating the Booking again.
+     */
     @PostMapping("/bookings")
-    @ResponseStatus(HttpStatus.CREATED)
-    public void createBooking(@Valid @RequestBody Booking booking) {
-        bookingService.createBooking(booking);
+    public ResponseEntity<Void> createBooking(@RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+                                              @Valid @RequestBody Booking booking) {
+        var result = idempotencyStore.execute(BookingMetrics.BOOKING, idempotencyKey, booking, () -> {
+            bookingService.createBooking(booking);
+            return null;
+        });
+        var response = ResponseEntity.status(HttpStatus.CREATED);
+        if(result.replayed()) {
+            response.header(IdempotencyStore.REPLAYED_HEADER, "true");
+        }
+        return response.build();
+    }
+
+    /**
+     * Create many Bookings from a JSON array.
+     * Each item is accepted or rejected on its own, see BatchItemResult.
+     */
+    @PostMapping(value = "/bookings/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<BatchItemResult> createBookings(@RequestBody List<Booking> bookings) {
+        return bookingBatchService.createBookings(bookings);
+    }
+
+    /**
+     * Create many Bookings from newline delimited JSON, one Booking per line.
+     * Reading stops one line past MAX_BATCH_SIZE, an oversized body is rejected without being buffered.
+     */
+    @PostMapping(value = "/bookings/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<BatchItemResult> createBookingsFromNdjson(InputStream body) {
+        try(MappingIterator<Booking> iterator = objectMapper.readerFor(Booking.class).readValues(body)) {
+            var bookings = new ArrayList<Booking>();
+            while(bookings.size() <= BookingBatchService.MAX_BATCH_SIZE && iterator.hasNextValue()) {
+                bookings.add(iterator.nextValue());
+            }
+            return bookingBatchService.createBookings(bookings);
+        } catch (InvalidFormatException e) {
+            if(e.getTargetType() == LocalDateTime.class) {
+                throw DateUtil.invalidFormat();
+            }
+            throw new BadRequestException("Invalid NDJSON body");
+        } catch (IOException e) {
+            throw new BadRequestException("Invalid NDJSON body");
+        }
     }
 
+    /**
+     * Update a Booking, with If-Match only when the ETag is still current, otherwise 412.
+     * A version in the body must be current, otherwise 409.
+     * Lost races with concurrent writes are retried when they changed other fields, see OptimisticRetry.
+     */
     @PutMapping("/bookings/{id}")
     @ResponseStatus(HttpStatus.OK)
-    public void updateBookings(@PathVariable String id, @Valid @RequestBody Booking booking) {
-        bookingService.updateBooking(toLong(id), booking);
+    public void updateBookings(@PathVariable String id,
+                               @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                               @Valid @RequestBody Booking booking) {
+        var bookingId = toLong(id);
+        var base = new UpdateBase();
+        optimisticRetry.run(BookingMetrics.BOOKING, bookingId,
+                () -> bookingService.updateBooking(bookingId, booking, EntityTag.requiredVersions(ifMatch), base));
     }
 
+    /**
+     * Delete a Booking, with If-Match only when the ETag is still current, otherwise 412.
+     */
     @DeleteMapping("/bookings/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteBookings(@PathVariable String id) {
-        bookingService.deleteBooking(toLong(id));
+    public void deleteBookings(@PathVariable String id,
+                               @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var bookingId = toLong(id);
+        optimisticRetry.run(BookingMetrics.BOOKING, bookingId,
+                () -> bookingService.deleteBooking(bookingId, EntityTag.requiredVersions(ifMatch)));
     }
 
     private long toLong(String id) {
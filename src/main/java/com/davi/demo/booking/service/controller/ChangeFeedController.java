@@ -0,0 +1,62 @@
+package com.davi.demo.booking.service.controller;
+
+import com.davi.demo.booking.service.exception.BadRequestException;
+import com.davi.demo.booking.service.service.ChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeFeedController {
+
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    private static final long UNKNOWN_EPOCH = -1;
+
+    private final ChangeFeed changeFeed;
+
+    @Autowired
+    public ChangeFeedController(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * Stream committed Booking and Blocking changes as Server-Sent Events, optionally of one Property.
+     * A client reconnecting with Last-Event-ID gets the changes it missed,
+     * or a reset event when they are no longer available or the id is from before a restart.
+     * No produces condition, so request errors are still written as JSON, SseEmitter sets text/event-stream.
+     */
+    @GetMapping
+    public SseEmitter subscribe(@RequestParam(required = false) String propertyId,
+                                @RequestHeader(name = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        return changeFeed.subscribe(
+                propertyId == null ? null : toLong(propertyId, "Id must be a number"),
+                lastEventId == null ? null : toEventId(lastEventId));
+    }
+
+    /**
+     * Parse epoch-sequence. A plain sequence, as sent before ids had an epoch, is of no known epoch.
+     */
+    private ChangeFeed.EventId toEventId(String value) {
+        var message = LAST_EVENT_ID_HEADER + " must be a change feed event id";
+        var separator = value.indexOf('-');
+        if(separator < 0) {
+            return new ChangeFeed.EventId(UNKNOWN_EPOCH, toLong(value, message));
+        }
+        return new ChangeFeed.EventId(toLong(value.substring(0, separator), message),
+                toLong(value.substring(separator + 1), message));
+    }
+
+    private long toLong(String value, String message) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException(message);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.davi.demo.booking.service.controller;
+
+import com.davi.demo.booking.service.common.AvailabilityCheck;
+import com.davi.demo.booking.service.common.AvailabilityResult;
+import com.davi.demo.booking.service.common.DateUtil;
+import com.davi.demo.booking.service.common.JsonArrayWriter;
+import com.davi.demo.booking.service.common.TimeSlot;
+import com.davi.demo.booking.service.exception.BadRequestException;
+import com.davi.demo.booking.service.service.AvailabilityService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+
+@RestController
+@RequestMapping("/api/properties")
+public class PropertyController {
+
+    private final AvailabilityService availabilityService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public PropertyController(AvailabilityService availabilityService, ObjectMapper objectMapper) {
+        this.availabilityService = availabilityService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Free periods of the Property between from and to, as a JSON array of TimeSlot.
+     * The array is written while Bookings and Blockings are read from the database.
+     */
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<StreamingResponseBody> getAvailability(
+            @PathVariable String id,
+            @RequestParam String from,
+            @RequestParam String to) {
+        long propertyId = toLong(id);
+        var fromDate = DateUtil.parse(from);
+        var toDate = DateUtil.parse(to);
+        availabilityService.validateWindow(propertyId, fromDate, toDate);
+
+        StreamingResponseBody body = out -> {
+            try(var writer = new JsonArrayWriter<>(objectMapper, TimeSlot.class, out)) {
+                availabilityService.findFreeSlots(propertyId, fromDate, toDate, writer);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Availability of many Properties and periods in one call, answered with a single query.
+     * Each item gets its own result, see AvailabilityResult.
+     */
+    @PostMapping(value = "/availability", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<AvailabilityResult> checkAvailability(@RequestBody List<AvailabilityCheck> checks) {
+        return availabilityService.checkAvailability(checks);
+    }
+
+    private long toLong(String id) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Id must be a number");
+        }
+    }
+}
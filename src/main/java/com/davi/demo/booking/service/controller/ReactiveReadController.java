@@ -0,0 +1,70 @@
+package com.davi.demo.booking.service.controller;
+
+import com.davi.demo.booking.service.common.ListFilter;
+import com.davi.demo.booking.service.exception.BadRequestException;
+import com.davi.demo.booking.service.model.Blocking;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.service.ReactiveReadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Read only API backed by R2DBC.
+ * Lists are streamed as newline delimited JSON, the next row is only read once the previous one is written.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+public class ReactiveReadController {
+
+    private final ReactiveReadService reactiveReadService;
+
+    @Autowired
+    public ReactiveReadController(ReactiveReadService reactiveReadService) {
+        this.reactiveReadService = reactiveReadService;
+    }
+
+    @GetMapping("/bookings/{id}")
+    public Mono<Booking> getBookingById(@PathVariable String id) {
+        return reactiveReadService.getBookingById(toLong(id));
+    }
+
+    @GetMapping(value = "/bookings", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Booking> getBookings(
+            @RequestParam(required = false) String propertyId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Boolean isCanceled) {
+        var filter = ListFilter.of(propertyId == null ? null : toLong(propertyId), from, to, isCanceled);
+        return reactiveReadService.getBookings(filter);
+    }
+
+    @GetMapping("/blockings/{id}")
+    public Mono<Blocking> getBlockingById(@PathVariable String id) {
+        return reactiveReadService.getBlockingById(toLong(id));
+    }
+
+    @GetMapping(value = "/blockings", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Blocking> getBlockings(
+            @RequestParam(required = false) String propertyId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        var filter = ListFilter.of(propertyId == null ? null : toLong(propertyId), from, to, null);
+        return reactiveReadService.getBlockings(filter);
+    }
+
+    private long toLong(String id) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Id must be a number");
+        }
+    }
+}
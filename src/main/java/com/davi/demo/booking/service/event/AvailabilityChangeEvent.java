@@ -0,0 +1,24 @@
+package com.davi.demo.booking.service.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of a Booking or Blocking write, published while the transaction is still open.
+ * Active is false for canceled bookings and for deletes.
+ */
+public record AvailabilityChangeEvent(Type type,
+                                      Action action,
+                                      Long id,
+                                      Long propertyId,
+                                      LocalDateTime startDate,
+                                      LocalDateTime endDate,
+                                      boolean active) {
+
+    public enum Type {
+        BOOKING, BLOCKING
+    }
+
+    public enum Action {
+        CREATED, UPDATED, CANCELED, DELETED
+    }
+}
@@ -0,0 +1,62 @@
+package com.davi.demo.booking.service.event;
+
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent.Action;
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent.Type;
+import com.davi.demo.booking.service.model.Blocking;
+import com.davi.demo.booking.service.model.Booking;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA listener for Booking and Blocking.
+ * Instantiated by Hibernate through Spring, so every write (services or repositories)
+ * is published as an AvailabilityChangeEvent.
+ */
+public class AvailabilityEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public AvailabilityEntityListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        publish(entity, Action.CREATED);
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        publish(entity, Action.UPDATED);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        publish(entity, Action.DELETED);
+    }
+
+    private void publish(Object entity, Action action) {
+        if(entity instanceof Booking booking) {
+            boolean canceled = Boolean.TRUE.equals(booking.getIsCanceled());
+            publisher.publishEvent(new AvailabilityChangeEvent(
+                    Type.BOOKING,
+                    action == Action.UPDATED && canceled ? Action.CANCELED : action,
+                    booking.getId(),
+                    booking.getProperty().getId(),
+                    booking.getStartDate(),
+                    booking.getEndDate(),
+                    action != Action.DELETED && !canceled));
+        } else if(entity instanceof Blocking blocking) {
+            publisher.publishEvent(new AvailabilityChangeEvent(
+                    Type.BLOCKING,
+                    action,
+                    blocking.getId(),
+                    blocking.getProperty().getId(),
+                    blocking.getStartDate(),
+                    blocking.getEndDate(),
+                    action != Action.DELETED));
+        }
+    }
+}
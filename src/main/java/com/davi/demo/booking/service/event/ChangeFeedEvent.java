@@ -0,0 +1,27 @@
+package com.davi.demo.booking.service.event;
+
+import com.davi.demo.booking.service.common.DateUtil;
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent.Action;
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent.Type;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed AvailabilityChangeEvent with its position in the change feed.
+ * sequence increases since startup, the SSE event id is the ChangeFeed epoch and the sequence.
+ */
+public record ChangeFeedEvent(long sequence,
+                              Type type,
+                              Action action,
+                              Long id,
+                              Long propertyId,
+                              @JsonFormat(pattern = DateUtil.DATE_FORMAT) LocalDateTime startDate,
+                              @JsonFormat(pattern = DateUtil.DATE_FORMAT) LocalDateTime endDate,
+                              boolean active) {
+
+    public static ChangeFeedEvent of(long sequence, AvailabilityChangeEvent change) {
+        return new ChangeFeedEvent(sequence, change.type(), change.action(), change.id(), change.propertyId(),
+                change.startDate(), change.endDate(), change.active());
+    }
+}
@@ -3,12 +3,39 @@ package com.davi.demo.booking.service.exception;
 import lombok.Getter;
 import org.springframework.http.HttpStatus;
 
+import java.text.MessageFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Expected failures answered with an error status, so they are thrown as normal control flow.
+ * They have no stack trace and no suppressed exceptions, which are most of the cost of throwing.
+ * Messages with arguments are MessageFormat patterns, parsed once and cached, the patterns must be constants.
+ * Messages without arguments are used as they are.
+ */
 @Getter
 public abstract class BaseException extends RuntimeException {
 
-    public BaseException(String message) {
-        super(message);
+    private static final Map<String, MessageFormat> TEMPLATES = new ConcurrentHashMap<>();
+
+    /**
+     * True when the message has no arguments, so the error payload can be reused.
+     */
+    private final boolean constantMessage;
+
+    protected BaseException(String format, Object... args) {
+        super(format(format, args), null, false, false);
+        this.constantMessage = args.length == 0;
     }
 
     public abstract HttpStatus getStatus();
+
+    static String format(String pattern, Object... args) {
+        if(args.length == 0) {
+            return pattern;
+        }
+        // MessageFormat is not thread safe, a clone of the parsed template is still cheaper than parsing
+        var template = (MessageFormat) TEMPLATES.computeIfAbsent(pattern, MessageFormat::new).clone();
+        return template.format(args);
+    }
 }
@@ -0,0 +1,15 @@
+package com.davi.demo.booking.service.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ConflictException extends BaseException {
+
+    public ConflictException(String format, Object... args) {
+        super(format, args);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.CONFLICT;
+    }
+}
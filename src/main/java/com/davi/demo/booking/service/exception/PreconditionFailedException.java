@@ -0,0 +1,15 @@
+package com.davi.demo.booking.service.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class PreconditionFailedException extends BaseException {
+
+    public PreconditionFailedException(String format, Object... args) {
+        super(format, args);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.PRECONDITION_FAILED;
+    }
+}
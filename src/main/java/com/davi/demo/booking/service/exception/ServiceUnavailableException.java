@@ -0,0 +1,15 @@
+package com.davi.demo.booking.service.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends BaseException {
+
+    public ServiceUnavailableException(String format, Object... args) {
+        super(format, args);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+}
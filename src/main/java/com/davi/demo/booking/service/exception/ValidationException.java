@@ -2,12 +2,10 @@ package com.davi.demo.booking.service.exception;
 
 import org.springframework.http.HttpStatus;
 
-import static java.text.MessageFormat.format;
-
 public class ValidationException extends BaseException {
 
     public ValidationException(String format, Object... args) {
-        super(format(format, args));
+        super(format, args);
     }
 
     @Override
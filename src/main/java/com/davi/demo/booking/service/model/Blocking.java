@@ -1,45 +1,59 @@
 package com.davi.demo.booking.service.model;
 
-import com.davi.demo.booking.service.common.LocalDateTimeConverter;
+import com.davi.demo.booking.service.common.DateUtil;
+import com.davi.demo.booking.service.event.AvailabilityEntityListener;
+import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.Column;
-import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import jakarta.validation.constraints.NotBlank;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Entity
+@EntityListeners(AvailabilityEntityListener.class)
 @Table(name = "blocking")
 @Data
 @EqualsAndHashCode
 @NoArgsConstructor
 public class Blocking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "blocking_seq")
+    @SequenceGenerator(name = "blocking_seq", sequenceName = "blocking_seq", allocationSize = 50)
     private Long id;
 
     private String name;
 
-    @NotBlank(message = "startDate is mandatory")
-    @Convert(converter = LocalDateTimeConverter.class)
+    @NotNull(message = "startDate is mandatory")
+    @JsonFormat(pattern = DateUtil.DATE_FORMAT)
     @Column(name = "start_date", nullable = false)
-    private String startDate;
+    private LocalDateTime startDate;
 
-    @NotBlank(message = "endDate is mandatory")
-    @Convert(converter = LocalDateTimeConverter.class)
+    @NotNull(message = "endDate is mandatory")
+    @JsonFormat(pattern = DateUtil.DATE_FORMAT)
     @Column(name = "end_date", nullable = false)
-    private String endDate;
+    private LocalDateTime endDate;
 
     @NotNull(message = "property is mandatory")
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "property_id")
     private Property property;
+
+    /**
+     * Incremented on every update and sent as the ETag, creates start from 0 whatever the request has.
+     */
+    @Version
+    private Long version;
 }
@@ -1,17 +1,22 @@
 package com.davi.demo.booking.service.model;
 
-import com.davi.demo.booking.service.common.LocalDateTimeConverter;
+import com.davi.demo.booking.service.common.DateUtil;
+import com.davi.demo.booking.service.event.AvailabilityEntityListener;
+import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.Column;
-import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -19,14 +24,18 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Entity
+@EntityListeners(AvailabilityEntityListener.class)
 @Table(name = "booking")
 @Data
 @EqualsAndHashCode
 @NoArgsConstructor
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "name is mandatory")
@@ -36,21 +45,27 @@ public class Booking {
     @Size(min = 2, max = 100, message = "Description must be between 2 and 100 characters")
     private String description;
 
-    @NotBlank(message = "startDate is mandatory")
-    @Convert(converter = LocalDateTimeConverter.class)
+    @NotNull(message = "startDate is mandatory")
+    @JsonFormat(pattern = DateUtil.DATE_FORMAT)
     @Column(name = "start_date", nullable = false)
-    private String startDate;
+    private LocalDateTime startDate;
 
-    @NotBlank(message = "endDate is mandatory")
-    @Convert(converter = LocalDateTimeConverter.class)
+    @NotNull(message = "endDate is mandatory")
+    @JsonFormat(pattern = DateUtil.DATE_FORMAT)
     @Column(name = "end_date", nullable = false)
-    private String endDate;
+    private LocalDateTime endDate;
 
     @Column(name = "is_canceled")
     private Boolean isCanceled = false;
 
     @NotNull(message = "property is mandatory")
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "property_id")
     private Property property;
+
+    /**
+     * Incremented on every update and sent as the ETag, creates start from 0 whatever the request has.
+     */
+    @Version
+    private Long version;
 }
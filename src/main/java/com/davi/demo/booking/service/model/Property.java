@@ -1,5 +1,6 @@
 package com.davi.demo.booking.service.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -9,8 +10,12 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
+/**
+ * Referenced lazily by Bookings and Blockings, the proxy fields are not serialized.
+ */
 @Entity
 @Table(name = "property")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @NoArgsConstructor
 @EqualsAndHashCode(of = {"id"})
@@ -0,0 +1,64 @@
+package com.davi.demo.booking.service.repository;
+
+import com.davi.demo.booking.service.common.AvailabilityCheck;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Availability of many (Property, period) pairs in one SQL statement.
+ * The pairs are bound as three arrays and unnested into rows, so the statement text is the same for any batch size.
+ * Each row is left joined with its Property and checked with EXISTS against active Bookings and Blockings,
+ * served by the property leading overlap indexes.
+ */
+@Repository
+public class AvailabilityRepository {
+
+    public static final String CHECK_SQL = """
+            SELECT c.idx, p.id IS NOT NULL AS property_exists,
+                NOT EXISTS (SELECT 1 FROM booking b
+                    WHERE b.property_id = c.property_id AND b.is_canceled = FALSE
+                    AND b.start_date < c.end_date AND b.end_date > c.start_date)
+                AND NOT EXISTS (SELECT 1 FROM blocking k
+                    WHERE k.property_id = c.property_id
+                    AND k.start_date < c.end_date AND k.end_date > c.start_date) AS available
+            FROM UNNEST(CAST(? AS BIGINT ARRAY), CAST(? AS TIMESTAMP ARRAY), CAST(? AS TIMESTAMP ARRAY))
+                WITH ORDINALITY AS c(property_id, start_date, end_date, idx)
+            LEFT JOIN property p ON p.id = c.property_id
+            ORDER BY c.idx
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public AvailabilityRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * One answer per check in the same order, checks must have a propertyId and both dates.
+     */
+    public List<CheckedPeriod> check(List<AvailabilityCheck> checks) {
+        var propertyIds = new Long[checks.size()];
+        var startDates = new LocalDateTime[checks.size()];
+        var endDates = new LocalDateTime[checks.size()];
+        for(int i = 0; i < checks.size(); i++) {
+            var check = checks.get(i);
+            propertyIds[i] = check.propertyId();
+            startDates[i] = check.startDate();
+            endDates[i] = check.endDate();
+        }
+        return jdbcTemplate.query(CHECK_SQL,
+                (rs, row) -> new CheckedPeriod(rs.getBoolean("property_exists"), rs.getBoolean("available")),
+                propertyIds, startDates, endDates);
+    }
+
+    /**
+     * available is only meaningful when the Property exists.
+     */
+    public record CheckedPeriod(boolean propertyExists, boolean available) {
+    }
+}
@@ -1,26 +1,108 @@
 package com.davi.demo.booking.service.repository;
 
+import com.davi.demo.booking.service.common.BlockingView;
+import com.davi.demo.booking.service.common.TimeSlot;
 import com.davi.demo.booking.service.model.Blocking;
 import com.davi.demo.booking.service.model.Property;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FLUSH_MODE;
 
 @Repository
-public interface BlockingRepository extends JpaRepository<Blocking, Long> {
+public interface BlockingRepository extends JpaRepository<Blocking, Long>, JpaSpecificationExecutor<Blocking> {
+
+    String FETCH_SIZE = "500";
 
+    /**
+     * Overlap with [startDate, endDate), callers validate startDate is before endDate so identical periods match too.
+     * Served by the property leading index as an equality prefix and a startDate range.
+     */
     @Query("""
             SELECT b FROM Blocking b
             WHERE b.property = :property
-            AND ((b.startDate < :endDate AND b.endDate > :startDate)
-                OR
-                (b.startDate = :startDate AND b.endDate = :endDate))
+            AND b.startDate < :endDate AND b.endDate > :startDate
             """)
     List<Blocking> findBlockingsByPropertyAndBlockingTimeRange(
             @Param("property") Property property,
-            @Param("startDate") String startDate,
-            @Param("endDate") String endDate);
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Blocking with its Property as a view, in one query and without loading the entity.
+     */
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query("""
+            SELECT new com.davi.demo.booking.service.common.BlockingView(
+                b.id, b.name, b.startDate, b.endDate, p.id, p.name, b.version)
+            FROM Blocking b JOIN b.property p
+            WHERE b.id = :id
+            """)
+    Optional<BlockingView> findViewById(@Param("id") Long id);
+
+    /**
+     * Version of a Blocking without loading it, for conditional requests.
+     */
+    @Query("SELECT b.version FROM Blocking b WHERE b.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("""
+            SELECT b FROM Blocking b
+            WHERE b.property.id IN :propertyIds
+            AND b.startDate < :endDate AND b.endDate > :startDate
+            """)
+    List<Blocking> findBlockingsByPropertiesAndTimeRange(
+            @Param("propertyIds") Collection<Long> propertyIds,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Stream Blockings with their Property as views for export, null parameters are ignored.
+     * Rows are fetched from JDBC in batches of FETCH_SIZE.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE),
+            @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query("""
+            SELECT new com.davi.demo.booking.service.common.BlockingView(
+                b.id, b.name, b.startDate, b.endDate, p.id, p.name, b.version)
+            FROM Blocking b JOIN b.property p
+            WHERE (:propertyId IS NULL OR b.property.id = :propertyId)
+            AND (:from IS NULL OR b.endDate > :from)
+            AND (:to IS NULL OR b.startDate < :to)
+            ORDER BY b.startDate, b.id
+            """)
+    Stream<BlockingView> streamBlockings(
+            @Param("propertyId") Long propertyId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * Stream the periods of Blockings of a Property overlapping [from, to), ordered by startDate.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query("""
+            SELECT new com.davi.demo.booking.service.common.TimeSlot(b.startDate, b.endDate)
+            FROM Blocking b
+            WHERE b.property.id = :propertyId
+            AND b.startDate < :to AND b.endDate > :from
+            ORDER BY b.startDate
+            """)
+    Stream<TimeSlot> streamBlockingSlots(
+            @Param("propertyId") Long propertyId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
 }
\ No newline at end of file
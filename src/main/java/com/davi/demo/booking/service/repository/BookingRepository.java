@@ -1,29 +1,150 @@
 package com.davi.demo.booking.service.repository;
 
+import com.davi.demo.booking.service.common.BookingPeriod;
+import com.davi.demo.booking.service.common.BookingView;
+import com.davi.demo.booking.service.common.TimeSlot;
 import com.davi.demo.booking.service.model.Booking;
 import com.davi.demo.booking.service.model.Property;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FLUSH_MODE;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+
+    String FETCH_SIZE = "500";
 
+    /**
+     * Overlap with [startDate, endDate), callers validate startDate is before endDate so identical periods match too.
+     * Served by the property leading index as an equality prefix and a startDate range.
+     */
     @Query("""
             SELECT b FROM Booking b
             WHERE b.property = :property
             AND b.isCanceled = :isCanceled
-            AND ((b.startDate < :endDate AND b.endDate > :startDate)
-                OR
-                (b.startDate = :startDate AND b.endDate = :endDate))
+            AND b.startDate < :endDate AND b.endDate > :startDate
             """)
     List<Booking> findBookingsByPropertyAndBookingTimeRangeAndStatus(
             @Param("property") Property property,
-            @Param("startDate") String startDate,
-            @Param("endDate") String endDate,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
             @Param("isCanceled") Boolean isCanceled
     );
+
+    List<Booking> findByIsCanceled(Boolean isCanceled);
+
+    @Query("""
+            SELECT new com.davi.demo.booking.service.common.BookingPeriod(b.id, b.startDate, b.endDate)
+            FROM Booking b
+            WHERE b.property.id = :propertyId
+            AND b.isCanceled = false
+            AND b.startDate < :endDate AND b.endDate > :startDate
+            """)
+    List<BookingPeriod> findActiveBookingPeriods(
+            @Param("propertyId") Long propertyId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Cancel the active Bookings of a Property overlapping the period with a single UPDATE.
+     * Pending changes are flushed first and the persistence context is cleared after,
+     * so no loaded Booking keeps a stale isCanceled.
+     * The version is incremented like an entity update, so ETags of canceled Bookings change.
+     * Entity listeners are not called, return the number of canceled Bookings.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Booking b SET b.isCanceled = true, b.version = b.version + 1
+            WHERE b.property.id = :propertyId
+            AND b.isCanceled = false
+            AND b.startDate < :endDate AND b.endDate > :startDate
+            """)
+    int cancelActiveBookings(
+            @Param("propertyId") Long propertyId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Booking with its Property as a view, in one query and without loading the entity.
+     */
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query("""
+            SELECT new com.davi.demo.booking.service.common.BookingView(
+                b.id, b.name, b.description, b.startDate, b.endDate, b.isCanceled, p.id, p.name, b.version)
+            FROM Booking b JOIN b.property p
+            WHERE b.id = :id
+            """)
+    Optional<BookingView> findViewById(@Param("id") Long id);
+
+    /**
+     * Version of a Booking without loading it, for conditional requests.
+     */
+    @Query("SELECT b.version FROM Booking b WHERE b.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("""
+            SELECT b FROM Booking b
+            WHERE b.property.id IN :propertyIds
+            AND b.isCanceled = false
+            AND b.startDate < :endDate AND b.endDate > :startDate
+            """)
+    List<Booking> findActiveBookingsByPropertiesAndTimeRange(
+            @Param("propertyIds") Collection<Long> propertyIds,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Stream Bookings with their Property as views for export, null parameters are ignored.
+     * Rows are fetched from JDBC in batches of FETCH_SIZE.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE),
+            @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query("""
+            SELECT new com.davi.demo.booking.service.common.BookingView(
+                b.id, b.name, b.description, b.startDate, b.endDate, b.isCanceled, p.id, p.name, b.version)
+            FROM Booking b JOIN b.property p
+            WHERE (:propertyId IS NULL OR b.property.id = :propertyId)
+            AND (:from IS NULL OR b.endDate > :from)
+            AND (:to IS NULL OR b.startDate < :to)
+            AND (:isCanceled IS NULL OR b.isCanceled = :isCanceled)
+            ORDER BY b.startDate, b.id
+            """)
+    Stream<BookingView> streamBookings(
+            @Param("propertyId") Long propertyId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("isCanceled") Boolean isCanceled);
+
+    /**
+     * Stream the periods of active Bookings of a Property overlapping [from, to), ordered by startDate.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query("""
+            SELECT new com.davi.demo.booking.service.common.TimeSlot(b.startDate, b.endDate)
+            FROM Booking b
+            WHERE b.property.id = :propertyId
+            AND b.isCanceled = false
+            AND b.startDate < :to AND b.endDate > :from
+            ORDER BY b.startDate
+            """)
+    Stream<TimeSlot> streamActiveBookingSlots(
+            @Param("propertyId") Long propertyId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
 }
\ No newline at end of file
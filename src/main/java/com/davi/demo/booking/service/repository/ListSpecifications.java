@@ -0,0 +1,68 @@
+package com.davi.demo.booking.service.repository;
+
+import com.davi.demo.booking.service.common.Cursor;
+import com.davi.demo.booking.service.common.ListFilter;
+import com.davi.demo.booking.service.model.Booking;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Criteria for Booking and Blocking lists.
+ * Both entities share the property, startDate and endDate attributes.
+ * Rows are ordered by (startDate, id), which is also the keyset used by Cursor.
+ */
+public class ListSpecifications {
+
+    public static final Sort KEYSET_SORT = Sort.by("startDate", "id");
+
+    private ListSpecifications() {
+    }
+
+    public static <T> Specification<T> matches(ListFilter filter) {
+        Specification<T> specification = Specification.where(null);
+        if(filter.propertyId() != null) {
+            specification = specification.and(hasPropertyId(filter.propertyId()));
+        }
+        if(filter.from() != null) {
+            specification = specification.and(endsAfter(filter.from()));
+        }
+        if(filter.to() != null) {
+            specification = specification.and(startsBefore(filter.to()));
+        }
+        return specification;
+    }
+
+    public static Specification<Booking> matchesBooking(ListFilter filter) {
+        Specification<Booking> specification = matches(filter);
+        if(filter.isCanceled() != null) {
+            specification = specification.and((root, query, cb) ->
+                    cb.equal(root.get("isCanceled"), filter.isCanceled()));
+        }
+        return specification;
+    }
+
+    public static <T> Specification<T> after(Cursor cursor) {
+        if(cursor == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("startDate"), cursor.startDate()),
+                cb.and(
+                        cb.equal(root.get("startDate"), cursor.startDate()),
+                        cb.greaterThan(root.get("id"), cursor.id())));
+    }
+
+    private static <T> Specification<T> hasPropertyId(Long propertyId) {
+        return (root, query, cb) -> cb.equal(root.get("property").get("id"), propertyId);
+    }
+
+    private static <T> Specification<T> endsAfter(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThan(root.get("endDate"), from);
+    }
+
+    private static <T> Specification<T> startsBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("startDate"), to);
+    }
+}
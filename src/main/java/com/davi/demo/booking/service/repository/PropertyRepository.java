@@ -2,9 +2,31 @@ package com.davi.demo.booking.service.repository;
 
 import com.davi.demo.booking.service.model.Booking;
 import com.davi.demo.booking.service.model.Property;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface PropertyRepository extends JpaRepository<Property, Long> {
-}
\ No newline at end of file
+
+    /**
+     * SELECT ... FOR UPDATE on the Property row, held until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Property p WHERE p.id = :id")
+    Optional<Property> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * SELECT ... FOR UPDATE on several Property rows, locked in id order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Property p WHERE p.id IN :ids ORDER BY p.id")
+    List<Property> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,167 @@
+package com.davi.demo.booking.service.repository;
+
+import com.davi.demo.booking.service.common.ListFilter;
+import com.davi.demo.booking.service.model.Blocking;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.model.Property;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read only access to Bookings and Blockings through R2DBC, rows are emitted as they are requested.
+ * Uses its own connection pool on booking.reactive.url with the DataSource credentials,
+ * separate from the JDBC pool of the write path.
+ * The pool is not a bean, so Spring Boot keeps configuring the JDBC DataSource.
+ */
+@Repository
+public class ReactiveReadRepository implements DisposableBean {
+
+    private static final String SELECT_BOOKINGS = """
+            SELECT b.id, b.name, b.description, b.start_date, b.end_date, b.is_canceled, b.version,
+                   b.property_id, p.name AS property_name
+            FROM booking b JOIN property p ON p.id = b.property_id
+            """;
+
+    private static final String SELECT_BLOCKINGS = """
+            SELECT b.id, b.name, b.start_date, b.end_date, b.version,
+                   b.property_id, p.name AS property_name
+            FROM blocking b JOIN property p ON p.id = b.property_id
+            """;
+
+    private static final String ORDER_BY = " ORDER BY b.start_date, b.id";
+
+    private final ConnectionPool pool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveReadRepository(@Value("${booking.reactive.url:r2dbc:h2:mem:///testdb}") String url,
+                                  @Value("${spring.datasource.username:sa}") String username,
+                                  @Value("${spring.datasource.password:}") String password,
+                                  @Value("${booking.reactive.pool.max-size:10}") int maxSize) {
+        var options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(maxSize)
+                .build());
+        this.databaseClient = DatabaseClient.create(pool);
+    }
+
+    public Mono<Booking> findBookingById(Long id) {
+        return databaseClient.sql(SELECT_BOOKINGS + " WHERE b.id = :id")
+                .bind("id", id)
+                .map(ReactiveReadRepository::toBooking)
+                .one();
+    }
+
+    /**
+     * Bookings matching the filter, ordered by startDate and id.
+     */
+    public Flux<Booking> findBookings(ListFilter filter) {
+        var conditions = conditions(filter);
+        if(filter.isCanceled() != null) {
+            conditions.put("b.is_canceled = :isCanceled", filter.isCanceled());
+        }
+        return query(SELECT_BOOKINGS, conditions)
+                .map(ReactiveReadRepository::toBooking)
+                .all();
+    }
+
+    public Mono<Blocking> findBlockingById(Long id) {
+        return databaseClient.sql(SELECT_BLOCKINGS + " WHERE b.id = :id")
+                .bind("id", id)
+                .map(ReactiveReadRepository::toBlocking)
+                .one();
+    }
+
+    /**
+     * Blockings matching the filter, ordered by startDate and id.
+     */
+    public Flux<Blocking> findBlockings(ListFilter filter) {
+        return query(SELECT_BLOCKINGS, conditions(filter))
+                .map(ReactiveReadRepository::toBlocking)
+                .all();
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+
+    /**
+     * Conditions by named parameter, only the filters that are set.
+     */
+    private static Map<String, Object> conditions(ListFilter filter) {
+        var conditions = new LinkedHashMap<String, Object>();
+        if(filter.propertyId() != null) {
+            conditions.put("b.property_id = :propertyId", filter.propertyId());
+        }
+        if(filter.from() != null) {
+            conditions.put("b.end_date > :from", filter.from());
+        }
+        if(filter.to() != null) {
+            conditions.put("b.start_date < :to", filter.to());
+        }
+        return conditions;
+    }
+
+    private DatabaseClient.GenericExecuteSpec query(String select, Map<String, Object> conditions) {
+        List<String> clauses = new ArrayList<>(conditions.keySet());
+        var sql = clauses.isEmpty() ? select : select + " WHERE " + String.join(" AND ", clauses);
+        var spec = databaseClient.sql(sql + ORDER_BY);
+        for(var condition : conditions.entrySet()) {
+            spec = spec.bind(parameterOf(condition.getKey()), condition.getValue());
+        }
+        return spec;
+    }
+
+    private static String parameterOf(String condition) {
+        return condition.substring(condition.indexOf(':') + 1);
+    }
+
+    private static Booking toBooking(Readable row) {
+        var booking = new Booking();
+        booking.setId(row.get("id", Long.class));
+        booking.setName(row.get("name", String.class));
+        booking.setDescription(row.get("description", String.class));
+        booking.setStartDate(row.get("start_date", LocalDateTime.class));
+        booking.setEndDate(row.get("end_date", LocalDateTime.class));
+        booking.setIsCanceled(row.get("is_canceled", Boolean.class));
+        booking.setVersion(row.get("version", Long.class));
+        booking.setProperty(toProperty(row));
+        return booking;
+    }
+
+    private static Blocking toBlocking(Readable row) {
+        var blocking = new Blocking();
+        blocking.setId(row.get("id", Long.class));
+        blocking.setName(row.get("name", String.class));
+        blocking.setStartDate(row.get("start_date", LocalDateTime.class));
+        blocking.setEndDate(row.get("end_date", LocalDateTime.class));
+        blocking.setVersion(row.get("version", Long.class));
+        blocking.setProperty(toProperty(row));
+        return blocking;
+    }
+
+    private static Property toProperty(Readable row) {
+        var property = new Property();
+        property.setId(row.get("property_id", Long.class));
+        property.setName(row.get("property_name", String.class));
+        return property;
+    }
+}
@@ -0,0 +1,70 @@
+package com.davi.demo.booking.service.repository;
+
+import com.davi.demo.booking.service.common.BlockingView;
+import com.davi.demo.booking.service.common.BookingView;
+import com.davi.demo.booking.service.model.Blocking;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.model.Property;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.FlushMode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FLUSH_MODE;
+
+/**
+ * Keyset ordered lists of BookingView and BlockingView.
+ * The ListSpecifications criteria are applied to a query constructing the views from the selected columns,
+ * Spring Data projections of specification queries would still load the entities.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class ViewRepository {
+
+    private final EntityManager entityManager;
+
+    @Autowired
+    public ViewRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public List<BookingView> findBookings(Specification<Booking> specification, int limit) {
+        return find(Booking.class, BookingView.class, specification, limit, (booking, property) -> new Selection<?>[]{
+                booking.get("id"), booking.get("name"), booking.get("description"),
+                booking.get("startDate"), booking.get("endDate"), booking.get("isCanceled"),
+                property.get("id"), property.get("name"), booking.get("version")});
+    }
+
+    public List<BlockingView> findBlockings(Specification<Blocking> specification, int limit) {
+        return find(Blocking.class, BlockingView.class, specification, limit, (blocking, property) -> new Selection<?>[]{
+                blocking.get("id"), blocking.get("name"), blocking.get("startDate"), blocking.get("endDate"),
+                property.get("id"), property.get("name"), blocking.get("version")});
+    }
+
+    private <T, V> List<V> find(Class<T> entity, Class<V> view, Specification<T> specification, int limit,
+                                BiFunction<Root<T>, From<T, Property>, Selection<?>[]> columns) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(view);
+        Root<T> root = query.from(entity);
+        From<T, Property> property = root.join("property");
+        query.select(cb.construct(view, columns.apply(root, property)));
+        var predicate = specification.toPredicate(root, query, cb);
+        if(predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(ListSpecifications.KEYSET_SORT, root, cb));
+        return entityManager.createQuery(query)
+                .setHint(HINT_FLUSH_MODE, FlushMode.MANUAL)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
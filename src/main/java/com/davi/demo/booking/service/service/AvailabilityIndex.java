@@ -0,0 +1,220 @@
+package com.davi.demo.booking.service.service;
+
+import com.davi.demo.booking.service.common.IntervalTree;
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent;
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent.Type;
+import com.davi.demo.booking.service.model.Blocking;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.davi.demo.booking.service.common.DateUtil.toEpochSecond;
+
+/**
+ * In-memory interval trees per Property for active Bookings and Blockings.
+ * Loaded on startup and kept up to date from committed AvailabilityChangeEvents,
+ * so overlap checks don't need a database round trip.
+ * When disabled (booking.availability.index.enabled) or not loaded yet,
+ * services fall back to the repository queries.
+ */
+@Slf4j
+@Service
+public class AvailabilityIndex {
+
+    private final BookingRepository bookingRepository;
+    private final BlockingRepository blockingRepository;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Intervals bookings = new Intervals();
+    private final Intervals blockings = new Intervals();
+    private volatile boolean loaded;
+
+    @Autowired
+    public AvailabilityIndex(BookingRepository bookingRepository,
+                             BlockingRepository blockingRepository,
+                             @Value("${booking.availability.index.enabled:false}") boolean enabled) {
+        this.bookingRepository = bookingRepository;
+        this.blockingRepository = blockingRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isActive() {
+        return enabled && loaded;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if(!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            bookings.clear();
+            blockings.clear();
+            bookingRepository.findByIsCanceled(false).forEach(booking ->
+                    bookings.put(booking.getId(), toInterval(booking)));
+            blockingRepository.findAll().forEach(blocking ->
+                    blockings.put(blocking.getId(), toInterval(blocking)));
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Availability index loaded with {} bookings and {} blockings",
+                bookings.size(), blockings.size());
+    }
+
+    /**
+     * Apply a Booking or Blocking write once its transaction is committed.
+     * Writes outside a transaction are applied immediately.
+     * Runs before PropertyLocks releases the Property, so the next writer sees the change.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(AvailabilityChangeEvent event) {
+        if(!enabled) {
+            return;
+        }
+        var intervals = event.type() == Type.BOOKING ? bookings : blockings;
+        lock.writeLock().lock();
+        try {
+            if(event.active()) {
+                intervals.put(event.id(), new Interval(event.propertyId(),
+                        toEpochSecond(event.startDate()), toEpochSecond(event.endDate())));
+            } else {
+                intervals.remove(event.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Check if there is an active Booking overlapping the period, ignoring the Booking with excludedId.
+     */
+    public boolean hasOverlappingBooking(Long propertyId, LocalDateTime startDate, LocalDateTime endDate, Long excludedId) {
+        return hasOverlap(bookings, propertyId, startDate, endDate, excludedId);
+    }
+
+    /**
+     * Check if there is a Blocking overlapping the period, ignoring the Blocking with excludedId.
+     */
+    public boolean hasOverlappingBlocking(Long propertyId, LocalDateTime startDate, LocalDateTime endDate, Long excludedId) {
+        return hasOverlap(blockings, propertyId, startDate, endDate, excludedId);
+    }
+
+    /**
+     * Compare the index with the repositories.
+     * Return a description of every difference, empty when consistent.
+     */
+    public List<String> checkConsistency() {
+        var expectedBookings = new HashMap<Long, Interval>();
+        bookingRepository.findByIsCanceled(false).forEach(booking ->
+                expectedBookings.put(booking.getId(), toInterval(booking)));
+        var expectedBlockings = new HashMap<Long, Interval>();
+        blockingRepository.findAll().forEach(blocking ->
+                expectedBlockings.put(blocking.getId(), toInterval(blocking)));
+
+        lock.readLock().lock();
+        try {
+            var differences = new ArrayList<String>();
+            bookings.diff("Booking", expectedBookings, differences);
+            blockings.diff("Blocking", expectedBlockings, differences);
+            return differences;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean hasOverlap(Intervals intervals, Long propertyId,
+                               LocalDateTime startDate, LocalDateTime endDate, Long excludedId) {
+        long start = toEpochSecond(startDate);
+        long end = toEpochSecond(endDate);
+        lock.readLock().lock();
+        try {
+            var tree = intervals.byProperty.get(propertyId);
+            return tree != null && tree.findOverlap(start, end, excludedId) != IntervalTree.NOT_FOUND;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Interval toInterval(Booking booking) {
+        return new Interval(booking.getProperty().getId(),
+                toEpochSecond(booking.getStartDate()), toEpochSecond(booking.getEndDate()));
+    }
+
+    private static Interval toInterval(Blocking blocking) {
+        return new Interval(blocking.getProperty().getId(),
+                toEpochSecond(blocking.getStartDate()), toEpochSecond(blocking.getEndDate()));
+    }
+
+    private record Interval(Long propertyId, long start, long end) {
+    }
+
+    /**
+     * Intervals of one entity type, by id and by Property.
+     * Guarded by the index lock.
+     */
+    private static final class Intervals {
+        private final Map<Long, Interval> byId = new HashMap<>();
+        private final Map<Long, IntervalTree> byProperty = new HashMap<>();
+
+        private void put(Long id, Interval interval) {
+            remove(id);
+            byId.put(id, interval);
+            byProperty.computeIfAbsent(interval.propertyId(), propertyId -> new IntervalTree())
+                    .insert(interval.start(), interval.end(), id);
+        }
+
+        private void remove(Long id) {
+            var previous = byId.remove(id);
+            if(previous == null) {
+                return;
+            }
+            var tree = byProperty.get(previous.propertyId());
+            tree.remove(previous.start(), id);
+            if(tree.size() == 0) {
+                byProperty.remove(previous.propertyId());
+            }
+        }
+
+        private void clear() {
+            byId.clear();
+            byProperty.clear();
+        }
+
+        private int size() {
+            return byId.size();
+        }
+
+        private void diff(String name, Map<Long, Interval> expected, List<String> differences) {
+            expected.forEach((id, interval) -> {
+                if(!Objects.equals(byId.get(id), interval)) {
+                    differences.add(name + " id: " + id + " expected " + interval + " but was " + byId.get(id));
+                }
+            });
+            byId.keySet().stream()
+                    .filter(id -> !expected.containsKey(id))
+                    .forEach(id -> differences.add(name + " id: " + id + " is not active"));
+        }
+    }
+}
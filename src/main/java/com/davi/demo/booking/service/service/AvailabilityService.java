@@ -0,0 +1,161 @@
+package com.davi.demo.booking.service.service;
+
+import com.davi.demo.booking.service.common.AvailabilityCheck;
+import com.davi.demo.booking.service.common.AvailabilityResult;
+import com.davi.demo.booking.service.common.TimeSlot;
+import com.davi.demo.booking.service.exception.BaseException;
+import com.davi.demo.booking.service.exception.NotFoundException;
+import com.davi.demo.booking.service.exception.ValidationException;
+import com.davi.demo.booking.service.repository.AvailabilityRepository;
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Service
+public class AvailabilityService {
+
+    public static final int MAX_CHECKS = 1000;
+
+    private final BookingRepository bookingRepository;
+    private final BlockingRepository blockingRepository;
+    private final AvailabilityRepository availabilityRepository;
+    private final PropertyService propertyService;
+
+    @Autowired
+    public AvailabilityService(BookingRepository bookingRepository,
+                               BlockingRepository blockingRepository,
+                               AvailabilityRepository availabilityRepository,
+                               PropertyService propertyService) {
+        this.bookingRepository = bookingRepository;
+        this.blockingRepository = blockingRepository;
+        this.availabilityRepository = availabilityRepository;
+        this.propertyService = propertyService;
+    }
+
+    /**
+     * Validate the Property exists and from is before to.
+     * Called before a streamed response starts, so errors still get their status code.
+     */
+    public void validateWindow(Long propertyId, LocalDateTime from, LocalDateTime to) {
+        propertyService.getPropertyById(propertyId);
+        if(!from.isBefore(to)) {
+            throw new ValidationException("From date must be before to date");
+        }
+    }
+
+    /**
+     * Send the free periods of a Property within [from, to) to the consumer, ordered by startDate.
+     * The window must have been checked with validateWindow, the Property is not looked up again.
+     * Active Bookings and Blockings are read with one streamed query each
+     * and merged in a single pass.
+     * Return the number of free periods.
+     */
+    @Transactional(readOnly = true)
+    public long findFreeSlots(Long propertyId, LocalDateTime from, LocalDateTime to, Consumer<TimeSlot> consumer) {
+        try(var bookings = bookingRepository.streamActiveBookingSlots(propertyId, from, to);
+            var blockings = blockingRepository.streamBlockingSlots(propertyId, from, to)) {
+            return mergeFreeSlots(bookings.iterator(), blockings.iterator(), from, to, consumer);
+        }
+    }
+
+    /**
+     * Tell for each check whether its Property has no active Booking or Blocking overlapping the period.
+     * Valid checks are answered together with one query, see AvailabilityRepository.
+     * Return one result per check in request order, invalid checks and unknown Properties get their error.
+     */
+    @Transactional(readOnly = true)
+    public List<AvailabilityResult> checkAvailability(List<AvailabilityCheck> checks) {
+        if(checks.isEmpty() || checks.size() > MAX_CHECKS) {
+            throw new ValidationException("Batch must have between 1 and {0,number,#} checks", MAX_CHECKS);
+        }
+        var results = new AvailabilityResult[checks.size()];
+
+        var indexes = new ArrayList<Integer>();
+        var valid = new ArrayList<AvailabilityCheck>();
+        for(int index = 0; index < checks.size(); index++) {
+            try {
+                valid.add(validate(checks.get(index)));
+                indexes.add(index);
+            } catch (BaseException e) {
+                results[index] = AvailabilityResult.failed(index, e);
+            }
+        }
+
+        if(!valid.isEmpty()) {
+            var answers = availabilityRepository.check(valid);
+            for(int i = 0; i < answers.size(); i++) {
+                int index = indexes.get(i);
+                var answer = answers.get(i);
+                results[index] = answer.propertyExists()
+                        ? AvailabilityResult.of(index, answer.available())
+                        : AvailabilityResult.failed(index, new NotFoundException(
+                                "Property id: {0,number,#} not found", valid.get(i).propertyId()));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private static AvailabilityCheck validate(AvailabilityCheck check) {
+        if(check == null || check.propertyId() == null) {
+            throw new ValidationException("Property Id is required");
+        }
+        if(check.startDate() == null || check.endDate() == null) {
+            throw new ValidationException("startDate and endDate are mandatory");
+        }
+        if(!check.startDate().isBefore(check.endDate())) {
+            throw new ValidationException("From date must be before to date");
+        }
+        return check;
+    }
+
+    /**
+     * Sweep both busy periods ordered by startDate, taking the earliest each step.
+     * Any gap between the end of the busy periods seen so far and the next start is free.
+     */
+    static long mergeFreeSlots(Iterator<TimeSlot> bookings, Iterator<TimeSlot> blockings,
+                               LocalDateTime from, LocalDateTime to, Consumer<TimeSlot> consumer) {
+        long count = 0;
+        var freeFrom = from;
+        var booking = next(bookings);
+        var blocking = next(blockings);
+        while((booking != null || blocking != null) && freeFrom.isBefore(to)) {
+            TimeSlot busy;
+            if(blocking == null || (booking != null && !booking.startDate().isAfter(blocking.startDate()))) {
+                busy = booking;
+                booking = next(bookings);
+            } else {
+                busy = blocking;
+                blocking = next(blockings);
+            }
+            if(busy.startDate().isAfter(freeFrom)) {
+                consumer.accept(new TimeSlot(freeFrom, min(busy.startDate(), to)));
+                count++;
+            }
+            if(busy.endDate().isAfter(freeFrom)) {
+                freeFrom = busy.endDate();
+            }
+        }
+        if(freeFrom.isBefore(to)) {
+            consumer.accept(new TimeSlot(freeFrom, to));
+            count++;
+        }
+        return count;
+    }
+
+    private static TimeSlot next(Iterator<TimeSlot> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -1,47 +1,119 @@
 package com.davi.demo.booking.service.service;
 
+import com.davi.demo.booking.service.common.BlockingResult;
+import com.davi.demo.booking.service.common.BlockingView;
+import com.davi.demo.booking.service.common.Cursor;
+import com.davi.demo.booking.service.common.CursorPage;
+import com.davi.demo.booking.service.common.ListFilter;
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent;
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent.Action;
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent.Type;
 import com.davi.demo.booking.service.exception.BadRequestException;
+import com.davi.demo.booking.service.exception.ConflictException;
 import com.davi.demo.booking.service.exception.NotFoundException;
+import com.davi.demo.booking.service.exception.PreconditionFailedException;
 import com.davi.demo.booking.service.exception.ValidationException;
 import com.davi.demo.booking.service.model.Blocking;
-import com.davi.demo.booking.service.model.Booking;
 import com.davi.demo.booking.service.repository.BlockingRepository;
 import com.davi.demo.booking.service.repository.BookingRepository;
-import jakarta.transaction.Transactional;
+import com.davi.demo.booking.service.repository.ListSpecifications;
+import com.davi.demo.booking.service.repository.ViewRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-
-import static com.davi.demo.booking.service.common.DateUtil.parse;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 public class BlockingService {
 
+    private static final String PROPERTY = "property";
+    private static final String NAME = "name";
+    private static final String START_DATE = "startDate";
+    private static final String END_DATE = "endDate";
+
     private final BlockingRepository blockingRepository;
     private final BookingRepository bookingRepository;
     private final PropertyService propertyService;
+    private final AvailabilityIndex availabilityIndex;
+    private final ViewRepository viewRepository;
+    private final BookingMetrics bookingMetrics;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Autowired
     public BlockingService(BlockingRepository blockingRepository,
                            BookingRepository bookingRepository,
-                           PropertyService propertyService) {
+                           PropertyService propertyService,
+                           AvailabilityIndex availabilityIndex,
+                           ViewRepository viewRepository,
+                           BookingMetrics bookingMetrics,
+                           ApplicationEventPublisher eventPublisher) {
         this.blockingRepository = blockingRepository;
         this.bookingRepository = bookingRepository;
         this.propertyService = propertyService;
+        this.availabilityIndex = availabilityIndex;
+        this.viewRepository = viewRepository;
+        this.bookingMetrics = bookingMetrics;
+        this.eventPublisher = eventPublisher;
     }
 
-    public Blocking getBlockingById(Long id) {
+    /**
+     * Blocking with its Property as a view, read in a read-only transaction.
+     */
+    @Transactional(readOnly = true)
+    public BlockingView getBlockingById(Long id) {
         if(id == null) {
             throw new ValidationException("Blocking Id is required");
         }
-        return blockingRepository.findById(id)
+        return blockingRepository.findViewById(id)
                 .orElseThrow(() -> new NotFoundException("Blocking id: {0} not found", id));
     }
 
-    public List<Blocking> getAllBlockings() {
-        return blockingRepository.findAll();
+    /**
+     * Version of the Blocking for conditional requests, read without loading the Blocking.
+     */
+    @Transactional(readOnly = true)
+    public long getBlockingVersion(Long id) {
+        return blockingRepository.findVersionById(id)
+                .orElseThrow(() -> new NotFoundException("Blocking id: {0,number,#} not found", id));
+    }
+
+    /**
+     * Return one page of Blockings ordered by startDate and id.
+     * Only size + 1 rows are read, starting after the cursor, as views joined with their Property.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<BlockingView> getBlockings(ListFilter filter, String cursor, int size) {
+        CursorPage.validateSize(size);
+
+        Specification<Blocking> specification = ListSpecifications.<Blocking>matches(filter)
+                .and(ListSpecifications.after(cursor == null ? null : Cursor.decode(cursor)));
+        var rows = viewRepository.findBlockings(specification, size + 1);
+        return CursorPage.of(rows, size, blocking -> new Cursor(blocking.startDate(), blocking.id()));
+    }
+
+    /**
+     * Stream every Blocking matching the filter to the consumer, ordered by startDate and id.
+     * Rows are read as views, so the persistence context stays empty whatever the table size.
+     * Return the number of exported Blockings.
+     */
+    @Transactional(readOnly = true)
+    public long exportBlockings(ListFilter filter, Consumer<BlockingView> consumer) {
+        long count = 0;
+        try(var blockings = blockingRepository.streamBlockings(filter.propertyId(), filter.from(), filter.to())) {
+            var iterator = blockings.iterator();
+            while(iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
     }
 
     /**
@@ -50,34 +122,75 @@ public class BlockingService {
      * Cancel Bookings if date overlaps.
      */
     @Transactional
-    public void createBlocking(Blocking blocking) {
-        var property = propertyService.getPropertyById(blocking.getProperty().getId());
+    public BlockingResult createBlocking(Blocking blocking) {
+        var property = propertyService.lockPropertyById(blocking.getProperty().getId());
         blocking.setProperty(property);
+        blocking.setVersion(null);
 
         validateStartDateBeforeEndDate(blocking);
         validateNoBlockingsWithSameTimeAndProperty(blocking);
 
-        doCancelBookings(blocking);
         blockingRepository.save(blocking);
+        return new BlockingResult(blocking.getId(), doCancelBookings(blocking));
+    }
+
+    public BlockingResult updateBlocking(Long id, Blocking updatedBlocking) {
+        return updateBlocking(id, updatedBlocking, null, new UpdateBase());
     }
 
+    /**
+     * Update a Blocking, when expectedVersions is not null it must contain the current version (412)
+     * and when the request has a version it must be the current version (409).
+     * The Property is locked before the Blocking is loaded, so writers of the same Property never
+     * update a stale version. Other races fail on the version when flushed and OptimisticRetry runs the
+     * update again with the same base: only the fields the request changed are applied and validated with
+     * the committed ones, a Conflict when the concurrent update changed one of them or moved the Blocking.
+     */
     @Transactional
-    public void updateBlocking(Long id, Blocking updatedBlocking) {
-        blockingRepository.findById(id)
-                .ifPresentOrElse(blocking -> {
-                    var property = propertyService.getPropertyById(updatedBlocking.getProperty().getId());
+    public BlockingResult updateBlocking(Long id, Blocking updatedBlocking, Set<Long> expectedVersions, UpdateBase base) {
+        var property = propertyService.lockPropertyById(updatedBlocking.getProperty().getId());
+        var blocking = blockingRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Blocking id: {0,number,#} not found", id));
+        validateVersion(blocking, expectedVersions);
+        validateRequestVersion(blocking, updatedBlocking, base);
+        var merged = merge(blocking, updatedBlocking, base);
 
-                    validateStartDateBeforeEndDate(updatedBlocking);
-                    validateNoBlockingsWithSameTimeAndProperty(id, updatedBlocking);
-                    doCancelBookings(updatedBlocking);
+        validateStartDateBeforeEndDate(merged);
+        validateNoBlockingsWithSameTimeAndProperty(id, merged);
 
-                    blocking.setProperty(property);
-                    blocking.setName(updatedBlocking.getName());
-                    blocking.setStartDate(updatedBlocking.getStartDate());
-                    blocking.setEndDate(updatedBlocking.getEndDate());
-                }, () -> {
-                    throw new NotFoundException("Blocking id: {0,number,#} not found", id);
-                });
+        blocking.setProperty(property);
+        blocking.setName(merged.getName());
+        blocking.setStartDate(merged.getStartDate());
+        blocking.setEndDate(merged.getEndDate());
+        return new BlockingResult(id, doCancelBookings(merged));
+    }
+
+    /**
+     * The Blocking to validate and save: the fields the request changed from the base and the current others.
+     * The Property always comes from the request, it is the one locked.
+     */
+    private static Blocking merge(Blocking blocking, Blocking updatedBlocking, UpdateBase base) {
+        var changes = base.changes(fields(blocking), fields(updatedBlocking));
+        if(changes.overlap() || changes.concurrent().contains(PROPERTY)) {
+            throw new ConflictException("Blocking id: {0,number,#} was modified concurrently, reload it and try again",
+                    blocking.getId());
+        }
+        var requested = changes.requested();
+        var merged = new Blocking();
+        merged.setProperty(updatedBlocking.getProperty());
+        merged.setName(requested.contains(NAME) ? updatedBlocking.getName() : blocking.getName());
+        merged.setStartDate(requested.contains(START_DATE) ? updatedBlocking.getStartDate() : blocking.getStartDate());
+        merged.setEndDate(requested.contains(END_DATE) ? updatedBlocking.getEndDate() : blocking.getEndDate());
+        return merged;
+    }
+
+    private static Map<String, Object> fields(Blocking blocking) {
+        var fields = new HashMap<String, Object>();
+        fields.put(PROPERTY, blocking.getProperty().getId());
+        fields.put(NAME, blocking.getName());
+        fields.put(START_DATE, blocking.getStartDate());
+        fields.put(END_DATE, blocking.getEndDate());
+        return fields;
     }
 
     private void validateNoBlockingsWithSameTimeAndProperty(Blocking blocking) {
@@ -87,8 +200,16 @@ public class BlockingService {
     /**
      * Check if there are no blocks within the same period
      * In case of updates we ignore the response entity with same id.
+     * Use the AvailabilityIndex when active, otherwise query the database.
      */
     private void validateNoBlockingsWithSameTimeAndProperty(Long id, Blocking blocking) {
+    if(availabilityIndex.isActive()) {
+        if(availabilityIndex.hasOverlappingBlocking(blocking.getProperty().getId(),
+                blocking.getStartDate(), blocking.getEndDate(), id)) {
+            throw conflict();
+        }
+        return;
+    }
     blockingRepository.findBlockingsByPropertyAndBlockingTimeRange(
             blocking.getProperty(), blocking.getStartDate(), blocking.getEndDate())
             .stream()
@@ -96,31 +217,75 @@ public class BlockingService {
             .filter(savedId -> !savedId.equals(id))
             .findFirst()
             .ifPresent(existingBlocking -> {
-                throw new BadRequestException(
-                        "Property is already blocked for this period");
+                throw conflict();
             });
     }
 
-    private void validateStartDateBeforeEndDate(Blocking blocking) {
-        var startDate = parse(blocking.getStartDate());
-        var endDate = parse(blocking.getEndDate());
+    private BadRequestException conflict() {
+        bookingMetrics.conflictRejected(BookingMetrics.BLOCKING, BookingMetrics.BLOCKED);
+        return new BadRequestException("Property is already blocked for this period");
+    }
 
-        if(startDate.isAfter(endDate) || startDate.equals(endDate)) {
+    private static void validateVersion(Blocking blocking, Set<Long> expectedVersions) {
+        if(expectedVersions != null && !expectedVersions.contains(blocking.getVersion())) {
+            throw new PreconditionFailedException("Blocking id: {0,number,#} was modified, current version is {1,number,#}",
+                    blocking.getId(), blocking.getVersion());
+        }
+    }
+
+    /**
+     * The version of the request, when it has one, is the version it was read at.
+     * Checked on the first attempt only, retries compare the fields with the base read at that version.
+     */
+    private static void validateRequestVersion(Blocking blocking, Blocking updatedBlocking, UpdateBase base) {
+        if(base.isEmpty() && updatedBlocking.getVersion() != null
+                && !updatedBlocking.getVersion().equals(blocking.getVersion())) {
+            throw new ConflictException("Blocking id: {0,number,#} was modified, current version is {1,number,#}",
+                    blocking.getId(), blocking.getVersion());
+        }
+    }
+
+    private void validateStartDateBeforeEndDate(Blocking blocking) {
+        if(!blocking.getStartDate().isBefore(blocking.getEndDate())) {
             throw new ValidationException(
                     "Blocking endDate must be after startDate");
         }
     }
 
-    private void doCancelBookings(Blocking blocking) {
-        bookingRepository.findBookingsByPropertyAndBookingTimeRangeAndStatus(
-                        blocking.getProperty(), blocking.getStartDate(), blocking.getEndDate(), false)
-                .forEach(booking -> booking.setIsCanceled(true));
+    /**
+     * Cancel overlapping active Bookings with one bulk UPDATE, must be the last write of the transaction
+     * since the persistence context is cleared.
+     * The bulk UPDATE skips entity listeners, so a CANCELED event is published for each Booking.
+     * Return the number of canceled Bookings.
+     */
+    private int doCancelBookings(Blocking blocking) {
+        Long propertyId = blocking.getProperty().getId();
+        var bookings = bookingRepository.findActiveBookingPeriods(
+                propertyId, blocking.getStartDate(), blocking.getEndDate());
+        if(bookings.isEmpty()) {
+            return 0;
+        }
+        int canceled = bookingRepository.cancelActiveBookings(
+                propertyId, blocking.getStartDate(), blocking.getEndDate());
+        bookings.forEach(booking -> eventPublisher.publishEvent(new AvailabilityChangeEvent(
+                Type.BOOKING, Action.CANCELED, booking.id(), propertyId,
+                booking.startDate(), booking.endDate(), false)));
+        bookingMetrics.bookingsAutoCanceled(canceled);
+        return canceled;
     }
 
-    @Transactional
     public void deleteBlocking(Long id) {
+        deleteBlocking(id, null);
+    }
+
+    /**
+     * Delete a Blocking, when expectedVersions is not null it must contain the current version.
+     */
+    @Transactional
+    public void deleteBlocking(Long id, Set<Long> expectedVersions) {
         blockingRepository.findById(id)
                 .ifPresentOrElse(blocking -> {
+                    validateVersion(blocking, expectedVersions);
                     blockingRepository.deleteById(id);
                 }, () -> {
                     throw new NotFoundException("Blocking id: {0,number,#} not found", id);
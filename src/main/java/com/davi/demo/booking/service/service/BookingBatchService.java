@@ -0,0 +1,195 @@
+package com.davi.demo.booking.service.service;
+
+import com.davi.demo.booking.service.common.BatchItemResult;
+import com.davi.demo.booking.service.common.IntervalTree;
+import com.davi.demo.booking.service.exception.BadRequestException;
+import com.davi.demo.booking.service.exception.BaseException;
+import com.davi.demo.booking.service.exception.NotFoundException;
+import com.davi.demo.booking.service.exception.ValidationException;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.davi.demo.booking.service.common.DateUtil.toEpochSecond;
+
+/**
+ * Create many Bookings in one transaction.
+ * Properties are resolved and locked with one query, conflicts with one query per entity type
+ * and accepted Bookings are inserted with JDBC batching.
+ */
+@Service
+public class BookingBatchService {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private final BookingRepository bookingRepository;
+    private final BlockingRepository blockingRepository;
+    private final PropertyService propertyService;
+    private final Validator validator;
+    private final BookingMetrics bookingMetrics;
+
+    @Autowired
+    public BookingBatchService(BookingRepository bookingRepository,
+                               BlockingRepository blockingRepository,
+                               PropertyService propertyService,
+                               Validator validator,
+                               BookingMetrics bookingMetrics) {
+        this.bookingRepository = bookingRepository;
+        this.blockingRepository = blockingRepository;
+        this.propertyService = propertyService;
+        this.validator = validator;
+        this.bookingMetrics = bookingMetrics;
+    }
+
+    /**
+     * Create every valid Booking of the batch and return one result per item.
+     * Items are validated like a single create, including conflicts with
+     * existing Bookings, Blockings and previous items of the same batch.
+     */
+    @Transactional
+    public List<BatchItemResult> createBookings(List<Booking> bookings) {
+        if(bookings.isEmpty() || bookings.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Batch must have between 1 and {0,number,#} bookings", MAX_BATCH_SIZE);
+        }
+        var results = new BatchItemResult[bookings.size()];
+
+        var candidates = new ArrayList<Candidate>();
+        for(int index = 0; index < bookings.size(); index++) {
+            try {
+                candidates.add(validate(index, bookings.get(index)));
+            } catch (BaseException e) {
+                results[index] = failed(index, e);
+            }
+        }
+
+        var accepted = resolveConflicts(candidates, results);
+        bookingRepository.saveAll(accepted.stream().map(Candidate::booking).toList());
+        accepted.forEach(candidate ->
+                results[candidate.index()] = BatchItemResult.created(candidate.index(), candidate.booking().getId()));
+
+        return Arrays.asList(results);
+    }
+
+    private Candidate validate(int index, Booking booking) {
+        if(booking == null) {
+            throw new ValidationException("Booking is required");
+        }
+        booking.setId(null);
+        booking.setVersion(null);
+        validator.validate(booking).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .findFirst()
+                .ifPresent(message -> {
+                    throw new ValidationException(message);
+                });
+        if(Boolean.TRUE.equals(booking.getIsCanceled())) {
+            throw new ValidationException("Cannot create a canceled booking");
+        }
+        booking.setIsCanceled(false);
+        if(booking.getProperty().getId() == null) {
+            throw new ValidationException("Property Id is required");
+        }
+
+        if(!booking.getStartDate().isBefore(booking.getEndDate())) {
+            throw new ValidationException("Booking endDate must be after startDate");
+        }
+        return new Candidate(index, booking);
+    }
+
+    /**
+     * Check candidates in request order against existing active Bookings and Blockings,
+     * loaded once for the whole batch window, and against the candidates accepted before them.
+     */
+    private List<Candidate> resolveConflicts(List<Candidate> candidates, BatchItemResult[] results) {
+        var accepted = new ArrayList<Candidate>();
+        if(candidates.isEmpty()) {
+            return accepted;
+        }
+
+        var properties = propertyService.lockPropertiesByIds(candidates.stream()
+                .map(candidate -> candidate.booking().getProperty().getId())
+                .collect(Collectors.toSet()));
+        var windowStart = candidates.stream().map(Candidate::startDate)
+                .min(Comparator.naturalOrder()).orElseThrow();
+        var windowEnd = candidates.stream().map(Candidate::endDate)
+                .max(Comparator.naturalOrder()).orElseThrow();
+
+        var bookingTrees = new HashMap<Long, IntervalTree>();
+        bookingRepository.findActiveBookingsByPropertiesAndTimeRange(properties.keySet(), windowStart, windowEnd)
+                .forEach(booking -> insert(bookingTrees, booking.getProperty().getId(),
+                        booking.getStartDate(), booking.getEndDate(), booking.getId()));
+        var blockingTrees = new HashMap<Long, IntervalTree>();
+        blockingRepository.findBlockingsByPropertiesAndTimeRange(properties.keySet(), windowStart, windowEnd)
+                .forEach(blocking -> insert(blockingTrees, blocking.getProperty().getId(),
+                        blocking.getStartDate(), blocking.getEndDate(), blocking.getId()));
+
+        for(var candidate : candidates) {
+            var propertyId = candidate.booking().getProperty().getId();
+            try {
+                var property = properties.get(propertyId);
+                if(property == null) {
+                    throw new NotFoundException("Property id: {0,number,#} not found", propertyId);
+                }
+                if(overlaps(blockingTrees, propertyId, candidate)) {
+                    bookingMetrics.conflictRejected(BookingMetrics.BOOKING, BookingMetrics.BLOCKED);
+                    throw new BadRequestException("Property is blocked for this period");
+                }
+                if(overlaps(bookingTrees, propertyId, candidate)) {
+                    bookingMetrics.conflictRejected(BookingMetrics.BOOKING, BookingMetrics.BOOKED);
+                    throw new BadRequestException("Property is already booked for this period");
+                }
+                // candidates have no id yet, ids below NOT_FOUND keep them apart from saved Bookings
+                insert(bookingTrees, propertyId, candidate.startDate(), candidate.endDate(),
+                        IntervalTree.NOT_FOUND - 1 - candidate.index());
+                candidate.booking().setProperty(property);
+                accepted.add(candidate);
+            } catch (BaseException e) {
+                results[candidate.index()] = failed(candidate.index(), e);
+            }
+        }
+        return accepted;
+    }
+
+    private BatchItemResult failed(int index, BaseException e) {
+        bookingMetrics.validationFailed(e.getClass());
+        return BatchItemResult.failed(index, e);
+    }
+
+    private static void insert(Map<Long, IntervalTree> trees, Long propertyId,
+                               LocalDateTime startDate, LocalDateTime endDate, long id) {
+        trees.computeIfAbsent(propertyId, key -> new IntervalTree())
+                .insert(toEpochSecond(startDate), toEpochSecond(endDate), id);
+    }
+
+    private static boolean overlaps(Map<Long, IntervalTree> trees, Long propertyId, Candidate candidate) {
+        var tree = trees.get(propertyId);
+        return tree != null && tree.findOverlap(toEpochSecond(candidate.startDate()),
+                toEpochSecond(candidate.endDate()), null) != IntervalTree.NOT_FOUND;
+    }
+
+    private record Candidate(int index, Booking booking) {
+
+        private LocalDateTime startDate() {
+            return booking.getStartDate();
+        }
+
+        private LocalDateTime endDate() {
+            return booking.getEndDate();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.davi.demo.booking.service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Business counters for Bookings and Blockings.
+ * Latency of endpoints and repository queries is recorded by Spring Boot
+ * (http.server.requests and spring.data.repository.invocations).
+ */
+@Component
+public class BookingMetrics {
+
+    public static final String BOOKING = "booking";
+    public static final String BLOCKING = "blocking";
+    public static final String BOOKED = "booked";
+    public static final String BLOCKED = "blocked";
+
+    private final MeterRegistry registry;
+    private final Counter autoCanceled;
+    private final Map<String, Map<String, Counter>> conflicts = new ConcurrentHashMap<>();
+    private final Map<String, Counter> optimisticRetries = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Counter> validationFailures = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.autoCanceled = Counter.builder("booking.auto.canceled")
+                .description("Bookings canceled because a Blocking overlaps them")
+                .register(registry);
+    }
+
+    /**
+     * A write of entity (BOOKING or BLOCKING) rejected because the Property is BOOKED or BLOCKED.
+     * Counters are registered once, rejections are frequent on popular periods.
+     */
+    public void conflictRejected(String entity, String reason) {
+        conflicts.computeIfAbsent(entity, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(reason, key -> Counter.builder("booking.conflicts.rejected")
+                        .description("Writes rejected because of an overlapping Booking or Blocking")
+                        .tag("entity", entity)
+                        .tag("reason", reason)
+                        .register(registry))
+                .increment();
+    }
+
+    /**
+     * An update or delete of entity (BOOKING or BLOCKING) retried after losing an optimistic lock race.
+     */
+    public void optimisticRetry(String entity) {
+        optimisticRetries.computeIfAbsent(entity, key -> Counter.builder("booking.optimistic.retries")
+                        .description("Writes retried because the entity version changed concurrently")
+                        .tag("entity", entity)
+                        .register(registry))
+                .increment();
+    }
+
+    public void bookingsAutoCanceled(int count) {
+        autoCanceled.increment(count);
+    }
+
+    /**
+     * A request or batch item rejected, type is the exception simple name.
+     */
+    public void validationFailed(Class<? extends Exception> type) {
+        validationFailures.computeIfAbsent(type, key -> Counter.builder("booking.validation.failures")
+                        .description("Requests and batch items rejected by validation")
+                        .tag("type", type.getSimpleName())
+                        .register(registry))
+                .increment();
+    }
+}
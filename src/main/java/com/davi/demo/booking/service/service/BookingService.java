@@ -1,46 +1,114 @@
 package com.davi.demo.booking.service.service;
 
+import com.davi.demo.booking.service.common.BookingView;
+import com.davi.demo.booking.service.common.Cursor;
+import com.davi.demo.booking.service.common.CursorPage;
+import com.davi.demo.booking.service.common.ListFilter;
 import com.davi.demo.booking.service.exception.BadRequestException;
+import com.davi.demo.booking.service.exception.ConflictException;
 import com.davi.demo.booking.service.exception.NotFoundException;
+import com.davi.demo.booking.service.exception.PreconditionFailedException;
 import com.davi.demo.booking.service.exception.ValidationException;
 import com.davi.demo.booking.service.model.Booking;
 import com.davi.demo.booking.service.repository.BlockingRepository;
 import com.davi.demo.booking.service.repository.BookingRepository;
-import jakarta.transaction.Transactional;
+import com.davi.demo.booking.service.repository.ListSpecifications;
+import com.davi.demo.booking.service.repository.ViewRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-
-import static com.davi.demo.booking.service.common.DateUtil.parse;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 public class BookingService {
+
+    private static final String PROPERTY = "property";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String IS_CANCELED = "isCanceled";
+    private static final String START_DATE = "startDate";
+    private static final String END_DATE = "endDate";
+
     private final BookingRepository bookingRepository;
     private final BlockingRepository blockingRepository;
 
     private final PropertyService propertyService;
+    private final AvailabilityIndex availabilityIndex;
+    private final ViewRepository viewRepository;
+    private final BookingMetrics bookingMetrics;
 
 
     @Autowired
     public BookingService(BookingRepository bookingRepository,
                           BlockingRepository blockingRepository,
-                          PropertyService propertyService) {
+                          PropertyService propertyService,
+                          AvailabilityIndex availabilityIndex,
+                          ViewRepository viewRepository,
+                          BookingMetrics bookingMetrics) {
         this.bookingRepository = bookingRepository;
         this.blockingRepository = blockingRepository;
         this.propertyService = propertyService;
+        this.availabilityIndex = availabilityIndex;
+        this.viewRepository = viewRepository;
+        this.bookingMetrics = bookingMetrics;
     }
 
-    public Booking getBookingById(Long id) {
+    /**
+     * Booking with its Property as a view, read in a read-only transaction.
+     */
+    @Transactional(readOnly = true)
+    public BookingView getBookingById(Long id) {
         if(id == null) {
             throw new ValidationException("Booking Id is required");
         }
-        return bookingRepository.findById(id)
+        return bookingRepository.findViewById(id)
+                .orElseThrow(() -> new NotFoundException("Booking id: {0,number,#} not found", id));
+    }
+
+    /**
+     * Version of the Booking for conditional requests, read without loading the Booking.
+     */
+    @Transactional(readOnly = true)
+    public long getBookingVersion(Long id) {
+        return bookingRepository.findVersionById(id)
                 .orElseThrow(() -> new NotFoundException("Booking id: {0,number,#} not found", id));
     }
 
-    public List<Booking> getAllBookings() {
-        return bookingRepository.findAll();
+    /**
+     * Return one page of Bookings ordered by startDate and id.
+     * Only size + 1 rows are read, starting after the cursor, as views joined with their Property.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<BookingView> getBookings(ListFilter filter, String cursor, int size) {
+        CursorPage.validateSize(size);
+
+        Specification<Booking> specification = ListSpecifications.matchesBooking(filter)
+                .and(ListSpecifications.after(cursor == null ? null : Cursor.decode(cursor)));
+        var rows = viewRepository.findBookings(specification, size + 1);
+        return CursorPage.of(rows, size, booking -> new Cursor(booking.startDate(), booking.id()));
+    }
+
+    /**
+     * Stream every Booking matching the filter to the consumer, ordered by startDate and id.
+     * Rows are read as views, so the persistence context stays empty whatever the table size.
+     * Return the number of exported Bookings.
+     */
+    @Transactional(readOnly = true)
+    public long exportBookings(ListFilter filter, Consumer<BookingView> consumer) {
+        long count = 0;
+        try(var bookings = bookingRepository.streamBookings(filter.propertyId(), filter.from(), filter.to(), filter.isCanceled())) {
+            var iterator = bookings.iterator();
+            while(iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
     }
 
     /**
@@ -52,8 +120,9 @@ public class BookingService {
         if(booking.getIsCanceled())
             throw new ValidationException("Cannot create a canceled booking");
 
-        var property = propertyService.getPropertyById(booking.getProperty().getId());
+        var property = propertyService.lockPropertyById(booking.getProperty().getId());
         booking.setProperty(property);
+        booking.setVersion(null);
 
         validateStartAndEndDate(booking);
         validateNoBookingsWithSameTimeAndProperty(booking);
@@ -66,25 +135,69 @@ public class BookingService {
      * Update a Booking only if Property already exists and there is no block.
      * Ignore all other Property fields, except id.
      */
-    @Transactional
     public void updateBooking(Long id, Booking updatedBooking) {
-        bookingRepository.findById(id)
-                .ifPresentOrElse(booking -> {
-                    var property = propertyService.getPropertyById(updatedBooking.getProperty().getId());
-
-                    validateStartAndEndDate(updatedBooking);
-                    validateNoBookingsWithSameTimeAndProperty(id, updatedBooking);
-                    validateNoBlockingsWithSameTimeAndProperty(updatedBooking);
-
-                    booking.setProperty(property);
-                    booking.setName(updatedBooking.getName());
-                    booking.setDescription(updatedBooking.getDescription());
-                    booking.setIsCanceled(updatedBooking.getIsCanceled());
-                    booking.setStartDate(updatedBooking.getStartDate());
-                    booking.setEndDate(updatedBooking.getEndDate());
-                }, () -> {
-                    throw new NotFoundException("Booking id: {0,number,#} not found", id);
-                });
+        updateBooking(id, updatedBooking, null, new UpdateBase());
+    }
+
+    /**
+     * Update a Booking, when expectedVersions is not null it must contain the current version (412)
+     * and when the request has a version it must be the current version (409).
+     * The Property is locked before the Booking is loaded, so writers of the same Property never
+     * update a stale version. Other races fail on the version when flushed and OptimisticRetry runs the
+     * update again with the same base: only the fields the request changed are applied and validated with
+     * the committed ones, a Conflict when the concurrent update changed one of them or moved the Booking.
+     */
+    @Transactional
+    public void updateBooking(Long id, Booking updatedBooking, Set<Long> expectedVersions, UpdateBase base) {
+        var property = propertyService.lockPropertyById(updatedBooking.getProperty().getId());
+        var booking = bookingRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Booking id: {0,number,#} not found", id));
+        validateVersion(booking, expectedVersions);
+        validateRequestVersion(booking, updatedBooking, base);
+        var merged = merge(booking, updatedBooking, base);
+
+        validateStartAndEndDate(merged);
+        validateNoBookingsWithSameTimeAndProperty(id, merged);
+        validateNoBlockingsWithSameTimeAndProperty(merged);
+
+        booking.setProperty(property);
+        booking.setName(merged.getName());
+        booking.setDescription(merged.getDescription());
+        booking.setIsCanceled(merged.getIsCanceled());
+        booking.setStartDate(merged.getStartDate());
+        booking.setEndDate(merged.getEndDate());
+    }
+
+    /**
+     * The Booking to validate and save: the fields the request changed from the base and the current others.
+     * The Property always comes from the request, it is the one locked.
+     */
+    private static Booking merge(Booking booking, Booking updatedBooking, UpdateBase base) {
+        var changes = base.changes(fields(booking), fields(updatedBooking));
+        if(changes.overlap() || changes.concurrent().contains(PROPERTY)) {
+            throw new ConflictException("Booking id: {0,number,#} was modified concurrently, reload it and try again",
+                    booking.getId());
+        }
+        var requested = changes.requested();
+        var merged = new Booking();
+        merged.setProperty(updatedBooking.getProperty());
+        merged.setName(requested.contains(NAME) ? updatedBooking.getName() : booking.getName());
+        merged.setDescription(requested.contains(DESCRIPTION) ? updatedBooking.getDescription() : booking.getDescription());
+        merged.setIsCanceled(requested.contains(IS_CANCELED) ? updatedBooking.getIsCanceled() : booking.getIsCanceled());
+        merged.setStartDate(requested.contains(START_DATE) ? updatedBooking.getStartDate() : booking.getStartDate());
+        merged.setEndDate(requested.contains(END_DATE) ? updatedBooking.getEndDate() : booking.getEndDate());
+        return merged;
+    }
+
+    private static Map<String, Object> fields(Booking booking) {
+        var fields = new HashMap<String, Object>();
+        fields.put(PROPERTY, booking.getProperty().getId());
+        fields.put(NAME, booking.getName());
+        fields.put(DESCRIPTION, booking.getDescription());
+        fields.put(IS_CANCELED, booking.getIsCanceled());
+        fields.put(START_DATE, booking.getStartDate());
+        fields.put(END_DATE, booking.getEndDate());
+        return fields;
     }
 
     private void validateNoBookingsWithSameTimeAndProperty(Booking booking) {
@@ -95,8 +208,16 @@ public class BookingService {
      * Check if there are no active bookings with same time and property.
      * Active booking has isCanceled = false.
      * In case of updates we ignore the response entity with same id.
+     * Use the AvailabilityIndex when active, otherwise query the database.
      */
     private void validateNoBookingsWithSameTimeAndProperty(Long id, Booking booking) {
+        if(availabilityIndex.isActive()) {
+            if(availabilityIndex.hasOverlappingBooking(booking.getProperty().getId(),
+                    booking.getStartDate(), booking.getEndDate(), id)) {
+                throw conflict(BookingMetrics.BOOKED, "Property is already booked for this period");
+            }
+            return;
+        }
         bookingRepository.findBookingsByPropertyAndBookingTimeRangeAndStatus(
                         booking.getProperty(), booking.getStartDate(), booking.getEndDate(), false)
                 .stream()
@@ -104,8 +225,7 @@ public class BookingService {
                 .filter(savedId -> !savedId.equals(id))
                 .findFirst()
                 .ifPresent(existingBooking -> {
-                    throw new BadRequestException(
-                            "Property is already booked for this period");
+                    throw conflict(BookingMetrics.BOOKED, "Property is already booked for this period");
                 });
     }
 
@@ -116,29 +236,65 @@ public class BookingService {
         if(booking.getIsCanceled()) {
             return;
         }
+        if(availabilityIndex.isActive()) {
+            if(availabilityIndex.hasOverlappingBlocking(booking.getProperty().getId(),
+                    booking.getStartDate(), booking.getEndDate(), null)) {
+                throw conflict(BookingMetrics.BLOCKED, "Property is blocked for this period");
+            }
+            return;
+        }
         blockingRepository.findBlockingsByPropertyAndBlockingTimeRange(
                         booking.getProperty(), booking.getStartDate(), booking.getEndDate())
                 .stream()
                 .findFirst()
                 .ifPresent(existingBlocking -> {
-                    throw new BadRequestException("Property is blocked for this period");
+                    throw conflict(BookingMetrics.BLOCKED, "Property is blocked for this period");
                 });
     }
 
-    private void validateStartAndEndDate(Booking booking) {
-        var startDate = parse(booking.getStartDate());
-        var endDate = parse(booking.getEndDate());
+    private BadRequestException conflict(String reason, String message) {
+        bookingMetrics.conflictRejected(BookingMetrics.BOOKING, reason);
+        return new BadRequestException(message);
+    }
 
-        if(startDate.isAfter(endDate) || startDate.equals(endDate)) {
+    private static void validateVersion(Booking booking, Set<Long> expectedVersions) {
+        if(expectedVersions != null && !expectedVersions.contains(booking.getVersion())) {
+            throw new PreconditionFailedException("Booking id: {0,number,#} was modified, current version is {1,number,#}",
+                    booking.getId(), booking.getVersion());
+        }
+    }
+
+    /**
+     * The version of the request, when it has one, is the version it was read at.
+     * Checked on the first attempt only, retries compare the fields with the base read at that version.
+     */
+    private static void validateRequestVersion(Booking booking, Booking updatedBooking, UpdateBase base) {
+        if(base.isEmpty() && updatedBooking.getVersion() != null
+                && !updatedBooking.getVersion().equals(booking.getVersion())) {
+            throw new ConflictException("Booking id: {0,number,#} was modified, current version is {1,number,#}",
+                    booking.getId(), booking.getVersion());
+        }
+    }
+
+    private void validateStartAndEndDate(Booking booking) {
+        if(!booking.getStartDate().isBefore(booking.getEndDate())) {
             throw new ValidationException(
                     "Booking endDate must be after startDate");
         }
     }
 
-    @Transactional
     public void deleteBooking(Long id) {
+        deleteBooking(id, null);
+    }
+
+    /**
+     * Delete a Booking, when expectedVersions is not null it must contain the current version.
+     */
+    @Transactional
+    public void deleteBooking(Long id, Set<Long> expectedVersions) {
         bookingRepository.findById(id)
                 .ifPresentOrElse(booking -> {
+                    validateVersion(booking, expectedVersions);
                     bookingRepository.deleteById(id);
                 }, () -> {
                     throw new NotFoundException("Booking id: {0,number,#} not found", id);
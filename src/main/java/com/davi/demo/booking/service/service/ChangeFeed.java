@@ -0,0 +1,320 @@
+package com.davi.demo.booking.service.service;
+
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent;
+import com.davi.demo.booking.service.event.ChangeFeedEvent;
+import com.davi.demo.booking.service.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-Sent Events feed of committed Booking and Blocking changes.
+ * Changes are kept in a ring buffer of booking.change-feed.buffer-size events, the only buffer of the feed:
+ * each subscriber is a position in the ring, drained by a small pool of sender threads.
+ * Event ids are the epoch of this instance, its startup time, and the sequence of the change.
+ * A subscriber that falls more than the ring behind, or resumes from an id this instance never sent,
+ * including any id of a previous run, gets a reset event and must reload its state,
+ * so slow consumers cannot grow the heap.
+ * A send blocked on a stalled client holds only its own thread: the pool keeps sender-threads
+ * and starts more, up to max-subscribers, while sends are blocked.
+ */
+@Slf4j
+@Service
+public class ChangeFeed implements MeterBinder, DisposableBean {
+
+    public static final String CHANGE_EVENT = "change";
+    public static final String RESET_EVENT = "reset";
+
+    private static final Duration SENDER_KEEP_ALIVE = Duration.ofMinutes(1);
+    private static final Duration CLOSE_WAIT = Duration.ofSeconds(1);
+
+    private final long epoch;
+    private final ChangeFeedEvent[] ring;
+    private long lastSequence;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final int maxSubscribers;
+    private final Duration timeout;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+    private final LongAdder resets = new LongAdder();
+
+    @Autowired
+    public ChangeFeed(@Value("${booking.change-feed.buffer-size:1024}") int bufferSize,
+                      @Value("${booking.change-feed.max-subscribers:256}") int maxSubscribers,
+                      @Value("${booking.change-feed.timeout:30m}") Duration timeout,
+                      @Value("${booking.change-feed.heartbeat:15s}") Duration heartbeat,
+                      @Value("${booking.change-feed.sender-threads:4}") int senderThreads) {
+        this(System.currentTimeMillis(), bufferSize, maxSubscribers, timeout, heartbeat, senderThreads);
+    }
+
+    ChangeFeed(long epoch, int bufferSize, int maxSubscribers, Duration timeout, Duration heartbeat, int senderThreads) {
+        if(bufferSize < 1 || maxSubscribers < 1 || senderThreads < 1) {
+            throw new IllegalArgumentException("buffer-size, max-subscribers and sender-threads must be positive");
+        }
+        this.epoch = epoch;
+        this.ring = new ChangeFeedEvent[bufferSize];
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        this.senders = new ThreadPoolExecutor(senderThreads, Math.max(senderThreads, maxSubscribers),
+                SENDER_KEEP_ALIVE.toSeconds(), TimeUnit.SECONDS, new SynchronousQueue<>(), daemonThreads("change-feed-"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(daemonThreads("change-feed-heartbeat-"));
+        this.heartbeats.scheduleAtFixedRate(this::heartbeat,
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Append a committed change and wake the subscribers.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(AvailabilityChangeEvent change) {
+        synchronized(ring) {
+            lastSequence++;
+            ring[index(lastSequence)] = ChangeFeedEvent.of(lastSequence, change);
+        }
+        subscribers.forEach(Subscriber::wake);
+    }
+
+    /**
+     * Subscribe to changes of one Property, or all when propertyId is null.
+     * Events after lastEventId are sent first, without it only new changes are sent.
+     * A lastEventId of another epoch starts with a reset event.
+     */
+    public SseEmitter subscribe(Long propertyId, EventId lastEventId) {
+        if(subscribers.size() >= maxSubscribers) {
+            throw new ServiceUnavailableException("Too many change feed subscribers, try again later");
+        }
+        var emitter = newEmitter(timeout);
+        var subscriber = lastEventId == null
+                ? new Subscriber(emitter, propertyId, lastSequence(), false)
+                : new Subscriber(emitter, propertyId, lastEventId.sequence(), lastEventId.epoch() != epoch);
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscriber.wake();
+        return emitter;
+    }
+
+    SseEmitter newEmitter(Duration timeout) {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    /**
+     * Events after sequence in order. When some of them were already overwritten,
+     * or sequence is ahead of this feed, gap is true and no events are returned.
+     */
+    Window after(long sequence) {
+        synchronized(ring) {
+            if(sequence < lastSequence - ring.length || sequence > lastSequence) {
+                return new Window(List.of(), true, lastSequence);
+            }
+            var events = new ArrayList<ChangeFeedEvent>((int) (lastSequence - sequence));
+            for(long next = sequence + 1; next <= lastSequence; next++) {
+                events.add(ring[index(next)]);
+            }
+            return new Window(events, false, lastSequence);
+        }
+    }
+
+    long lastSequence() {
+        synchronized(ring) {
+            return lastSequence;
+        }
+    }
+
+    public int subscribers() {
+        return subscribers.size();
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % ring.length);
+    }
+
+    private void heartbeat() {
+        subscribers.forEach(subscriber -> {
+            subscriber.heartbeatDue = true;
+            subscriber.wake();
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("booking.change.feed.subscribers", subscribers, Set::size)
+                .description("Open change feed connections")
+                .register(registry);
+        FunctionCounter.builder("booking.change.feed.events", this, ChangeFeed::lastSequence)
+                .description("Committed changes appended to the change feed")
+                .register(registry);
+        FunctionCounter.builder("booking.change.feed.resets", resets, LongAdder::sum)
+                .description("Subscribers that fell behind the ring buffer and were told to reload")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        var threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    /**
+     * events in order, last is the sequence of the newest event in the feed.
+     */
+    record Window(List<ChangeFeedEvent> events, boolean gap, long last) {
+    }
+
+    /**
+     * SSE id of an event, written as epoch-sequence.
+     */
+    public record EventId(long epoch, long sequence) {
+
+        @Override
+        public String toString() {
+            return epoch + "-" + sequence;
+        }
+    }
+
+    /**
+     * One connection, drained by at most one sender thread at a time.
+     * Once the container completes the request nothing more is sent, its response may already serve another request.
+     * close() waits up to CLOSE_WAIT for a send in progress, so a container callback does not recycle the response
+     * under a normal send, but is not held by a send blocked on a stalled client.
+     */
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long propertyId;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final ReentrantLock sending = new ReentrantLock();
+        private volatile boolean heartbeatDue;
+        private long cursor;
+        private boolean connected;
+        private boolean resetDue;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Long propertyId, long cursor, boolean resetDue) {
+            this.emitter = emitter;
+            this.propertyId = propertyId;
+            this.cursor = cursor;
+            this.resetDue = resetDue;
+        }
+
+        void wake() {
+            if(scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            try {
+                if(sending.tryLock(CLOSE_WAIT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    sending.unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void drain() {
+            try {
+                sending.lock();
+                try {
+                    send();
+                } finally {
+                    sending.unlock();
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Change feed subscriber disconnected: {}", e.getMessage());
+                close();
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            if(!closed && (cursor < lastSequence() || heartbeatDue)) {
+                wake();
+            }
+        }
+
+        private void send() throws IOException {
+            if(!connected) {
+                emit(SseEmitter.event().comment("connected"));
+                connected = true;
+            }
+            var window = after(cursor);
+            var events = window.events();
+            if(resetDue || window.gap()) {
+                resets.increment();
+                emit(SseEmitter.event()
+                        .name(RESET_EVENT)
+                        .id(new EventId(epoch, window.last()).toString())
+                        .data(Map.of("sequence", window.last()), MediaType.APPLICATION_JSON));
+                cursor = window.last();
+                resetDue = false;
+                events = List.of();
+            }
+            for(var event : events) {
+                if(closed) {
+                    return;
+                }
+                if(propertyId == null || propertyId.equals(event.propertyId())) {
+                    emit(SseEmitter.event()
+                            .name(CHANGE_EVENT)
+                            .id(new EventId(epoch, event.sequence()).toString())
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+                cursor = event.sequence();
+            }
+            if(heartbeatDue) {
+                heartbeatDue = false;
+                emit(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+
+        private void emit(SseEmitter.SseEventBuilder event) throws IOException {
+            if(!closed) {
+                emitter.send(event);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.davi.demo.booking.service.service;
+
+import com.davi.demo.booking.service.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Results of create requests by Idempotency-Key, bounded by size and by time since the first request.
+ * A repeated key returns the first result without running the request again,
+ * a repeated key still in progress waits for it.
+ * Failed requests are not kept, so the client can retry them with the same key.
+ * Requests are told apart by the SHA-256 of their JSON, only computed when there is a key.
+ * Keys are scoped by operation and only live in this instance.
+ * Stats are published as cache metrics with cache=idempotency.
+ */
+@Component
+public class IdempotencyStore implements MeterBinder {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String FINGERPRINT_ALGORITHM = "SHA-256";
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Entry> cache;
+
+    public IdempotencyStore(ObjectMapper objectMapper,
+                            @Value("${booking.idempotency.maximum-size:10000}") long maximumSize,
+                            @Value("${booking.idempotency.expire-after-write:1h}") Duration expireAfterWrite) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Run action once per scope and key, without a key it always runs.
+     * The same key with another request is a BadRequest, request must be read before action changes it.
+     */
+    public <T> Result<T> execute(String scope, String key, Object request, Supplier<T> action) {
+        if(key == null) {
+            return new Result<>(action.get(), false);
+        }
+        if(key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("{0} must have between 1 and {1} characters", HEADER, MAX_KEY_LENGTH);
+        }
+
+        var cacheKey = scope + ":" + key;
+        var entry = new Entry(fingerprint(request), new CompletableFuture<>());
+        var existing = cache.asMap().putIfAbsent(cacheKey, entry);
+        if(existing != null) {
+            if(!MessageDigest.isEqual(existing.fingerprint(), entry.fingerprint())) {
+                throw new BadRequestException("{0} {1} was already used with a different request", HEADER, key);
+            }
+            return new Result<>(join(existing), true);
+        }
+
+        try {
+            T value = action.get();
+            entry.result().complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException e) {
+            cache.asMap().remove(cacheKey, entry);
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance(FINGERPRINT_ALGORITHM).digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint " + request.getClass().getSimpleName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T join(Entry entry) {
+        try {
+            return (T) entry.result().join();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "idempotency");
+    }
+
+    /**
+     * value of the first request, replayed when it comes from an earlier request with the same key.
+     */
+    public record Result<T>(T value, boolean replayed) {
+    }
+
+    private record Entry(byte[] fingerprint, CompletableFuture<Object> result) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.davi.demo.booking.service.service;
+
+import com.davi.demo.booking.service.exception.ConflictException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Retry a transactional write that lost an optimistic lock race on a Booking or Blocking version.
+ * Each attempt is a new transaction, so the entity is loaded again and all validations run against
+ * the committed data, including the If-Match version. Updates share an UpdateBase between attempts,
+ * so a retry only applies the fields the request changed and fails when the concurrent write changed them too.
+ * When every attempt conflicts the write fails with a Conflict 409.
+ * Must wrap the transactional proxy, a retry inside the same transaction would see the stale entity.
+ */
+@Component
+public class OptimisticRetry {
+
+    private final int retries;
+    private final BookingMetrics bookingMetrics;
+
+    @Autowired
+    public OptimisticRetry(@Value("${booking.optimistic-lock.retries:2}") int retries,
+                           BookingMetrics bookingMetrics) {
+        if(retries < 0) {
+            throw new IllegalArgumentException("retries must not be negative");
+        }
+        this.retries = retries;
+        this.bookingMetrics = bookingMetrics;
+    }
+
+    /**
+     * Run action, entity (BOOKING or BLOCKING) and id only describe it in metrics and errors.
+     */
+    public <T> T run(String entity, Long id, Supplier<T> action) {
+        for(int attempt = 0; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if(attempt == retries) {
+                    throw new ConflictException("{0} id: {1,number,#} was modified concurrently, reload it and try again",
+                            entity.substring(0, 1).toUpperCase() + entity.substring(1), id);
+                }
+                bookingMetrics.optimisticRetry(entity);
+            }
+        }
+    }
+
+    public void run(String entity, Long id, Runnable action) {
+        run(entity, id, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,82 @@
+package com.davi.demo.booking.service.service;
+
+import com.davi.demo.booking.service.model.Property;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of Properties by id, evicted by size and by time since load.
+ * Only existing Properties are cached, unknown ids are looked up every time.
+ * Properties are read only today, evict/evictAll are the hooks for future writes.
+ * Stats are published as cache metrics with cache=properties.
+ */
+@Component
+public class PropertyCache implements MeterBinder {
+
+    private final Cache<Long, Property> cache;
+
+    public PropertyCache(@Value("${booking.property.cache.maximum-size:10000}") long maximumSize,
+                         @Value("${booking.property.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Return the cached Property or load it, a missing Property is not cached.
+     */
+    public Optional<Property> get(Long id, Function<Long, Optional<Property>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Return the cached Properties and load the missing ones with a single call.
+     * Ids that don't exist are not in the result.
+     */
+    public Map<Long, Property> getAll(Collection<Long> ids, Function<Set<Long>, Map<Long, Property>> loader) {
+        return cache.getAll(ids, missing -> loader.apply(Set.copyOf(missing)));
+    }
+
+    public void putAll(Collection<Property> properties) {
+        properties.forEach(property -> cache.put(property.getId(), property));
+    }
+
+    public void evict(Long id) {
+        cache.invalidate(id);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "properties");
+    }
+
+    /**
+     * Hit, miss, load and eviction counters since startup.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,111 @@
+package com.davi.demo.booking.service.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped in-JVM locks serializing writes per Property.
+ * A lock is held until the current transaction completes, so the next writer
+ * of the same Property sees the committed Bookings and Blockings.
+ * Properties on different stripes never wait for each other.
+ * Lock counters and wait times are published as booking.property.lock metrics.
+ */
+@Component
+public class PropertyLocks implements MeterBinder {
+
+    private final ReentrantLock[] stripes;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    public PropertyLocks(@Value("${booking.property.lock.stripes:64}") int stripes) {
+        if(stripes < 1) {
+            throw new IllegalArgumentException("stripes must be positive");
+        }
+        this.stripes = new ReentrantLock[stripes];
+        for(int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Lock the stripes of the Properties until the current transaction completes.
+     * Stripes are locked in index order, so concurrent calls cannot deadlock.
+     */
+    public void lockUntilCompletion(Collection<Long> propertyIds) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Property locks require an active transaction");
+        }
+        propertyIds.stream()
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .forEach(stripe -> {
+                    var lock = stripes[stripe];
+                    acquire(lock);
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            lock.unlock();
+                        }
+                    });
+                });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("booking.property.lock.acquisitions", acquisitions, LongAdder::sum)
+                .description("Property lock acquisitions")
+                .register(registry);
+        FunctionTimer.builder("booking.property.lock.wait", this,
+                        locks -> locks.contended.sum(), locks -> locks.waitNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Time waited for a Property lock held by another transaction")
+                .register(registry);
+        Gauge.builder("booking.property.lock.wait.max", maxWaitNanos, max -> max.get() / 1e9)
+                .description("Longest wait for a Property lock since startup")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    public Stats stats() {
+        return new Stats(acquisitions.sum(), contended.sum(), waitNanos.sum(), maxWaitNanos.get());
+    }
+
+    int stripeOf(Long propertyId) {
+        return Math.floorMod(Long.hashCode(propertyId), stripes.length);
+    }
+
+    private void acquire(ReentrantLock lock) {
+        acquisitions.increment();
+        if(lock.tryLock()) {
+            return;
+        }
+        contended.increment();
+        long start = System.nanoTime();
+        lock.lock();
+        long waited = System.nanoTime() - start;
+        waitNanos.add(waited);
+        maxWaitNanos.accumulate(waited);
+    }
+
+    /**
+     * Lock counters since startup. Wait times only count contended acquisitions.
+     */
+    public record Stats(long acquisitions, long contended, long totalWaitNanos, long maxWaitNanos) {
+    }
+}
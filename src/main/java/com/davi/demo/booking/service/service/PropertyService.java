@@ -4,27 +4,109 @@ import com.davi.demo.booking.service.exception.NotFoundException;
 import com.davi.demo.booking.service.exception.ValidationException;
 import com.davi.demo.booking.service.model.Property;
 import com.davi.demo.booking.service.repository.PropertyRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
 @Service
 public class PropertyService {
 
     private final PropertyRepository propertyRepository;
+    private final PropertyLocks propertyLocks;
+    private final PropertyCache propertyCache;
+    private final boolean rowLock;
+    private final boolean warmCache;
 
     @Autowired
-    public PropertyService(PropertyRepository propertyRepository) {
+    public PropertyService(PropertyRepository propertyRepository,
+                           PropertyLocks propertyLocks,
+                           PropertyCache propertyCache,
+                           @Value("${booking.property.lock.row-lock:false}") boolean rowLock,
+                           @Value("${booking.property.cache.warm:false}") boolean warmCache) {
         this.propertyRepository = propertyRepository;
+        this.propertyLocks = propertyLocks;
+        this.propertyCache = propertyCache;
+        this.rowLock = rowLock;
+        this.warmCache = warmCache;
+    }
+
+    /**
+     * Load every Property in the cache on startup when booking.property.cache.warm is set
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmCache() {
+        if(!warmCache) {
+            return;
+        }
+        propertyCache.putAll(propertyRepository.findAll());
+        log.info("Property cache warmed with {} properties", propertyCache.size());
     }
 
     /**
      * Find Property by id and Validate if id is not null
+     * Properties are served from the PropertyCache.
      */
     public Property getPropertyById(Long id) {
         if(id == null) {
             throw new ValidationException("Property Id is required");
         }
-        return propertyRepository.findById(id)
+        return propertyCache.get(id, propertyRepository::findById)
+                .orElseThrow(() -> new NotFoundException("Property id: {0,number,#} not found", id));
+    }
+
+    /**
+     * Find Property by id and lock it until the current transaction ends.
+     * Writers of the same Property wait for each other on the in-JVM stripe and the Property
+     * comes from the PropertyCache. With booking.property.lock.row-lock, for several instances
+     * sharing a database, it is read with SELECT ... FOR UPDATE instead.
+     */
+    public Property lockPropertyById(Long id) {
+        if(id == null) {
+            throw new ValidationException("Property Id is required");
+        }
+        propertyLocks.lockUntilCompletion(List.of(id));
+        if(!rowLock) {
+            return getPropertyById(id);
+        }
+        return propertyRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new NotFoundException("Property id: {0,number,#} not found", id));
     }
+
+    /**
+     * Find Properties by ids with a single query and lock them until the current transaction ends.
+     * Ids that don't exist are not in the result.
+     */
+    public Map<Long, Property> lockPropertiesByIds(Collection<Long> ids) {
+        propertyLocks.lockUntilCompletion(ids);
+        if(!rowLock) {
+            return propertyCache.getAll(ids, missing -> toMap(propertyRepository.findAllById(missing)));
+        }
+        return toMap(propertyRepository.findAllByIdForUpdate(ids));
+    }
+
+    /**
+     * Drop a Property from the cache, to be called after it is changed or deleted
+     */
+    public void evictProperty(Long id) {
+        propertyCache.evict(id);
+    }
+
+    public void evictAllProperties() {
+        propertyCache.evictAll();
+    }
+
+    private static Map<Long, Property> toMap(Collection<Property> properties) {
+        return properties.stream()
+                .collect(Collectors.toMap(Property::getId, Function.identity()));
+    }
 }
@@ -0,0 +1,50 @@
+package com.davi.demo.booking.service.service;
+
+import com.davi.demo.booking.service.common.ListFilter;
+import com.davi.demo.booking.service.exception.NotFoundException;
+import com.davi.demo.booking.service.exception.ValidationException;
+import com.davi.demo.booking.service.model.Blocking;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.repository.ReactiveReadRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non blocking reads of Bookings and Blockings, writes stay in BookingService and BlockingService.
+ */
+@Service
+public class ReactiveReadService {
+
+    private final ReactiveReadRepository reactiveReadRepository;
+
+    @Autowired
+    public ReactiveReadService(ReactiveReadRepository reactiveReadRepository) {
+        this.reactiveReadRepository = reactiveReadRepository;
+    }
+
+    public Mono<Booking> getBookingById(Long id) {
+        if(id == null) {
+            return Mono.error(new ValidationException("Booking Id is required"));
+        }
+        return reactiveReadRepository.findBookingById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Booking id: {0,number,#} not found", id)));
+    }
+
+    public Flux<Booking> getBookings(ListFilter filter) {
+        return reactiveReadRepository.findBookings(filter);
+    }
+
+    public Mono<Blocking> getBlockingById(Long id) {
+        if(id == null) {
+            return Mono.error(new ValidationException("Blocking Id is required"));
+        }
+        return reactiveReadRepository.findBlockingById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Blocking id: {0,number,#} not found", id)));
+    }
+
+    public Flux<Blocking> getBlockings(ListFilter filter) {
+        return reactiveReadRepository.findBlockings(filter);
+    }
+}
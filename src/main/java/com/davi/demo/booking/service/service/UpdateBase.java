@@ -0,0 +1,51 @@
+package com.davi.demo.booking.service.service;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The fields of a Booking or Blocking as the first attempt of an update loaded them,
+ * shared by every attempt of OptimisticRetry.
+ * An update applies only the fields its request changes from this base, so a retry after a concurrent
+ * update keeps what the other writer changed, unless both changed the same field.
+ */
+public class UpdateBase {
+
+    private Map<String, Object> fields;
+
+    /**
+     * True until the first attempt takes the base.
+     */
+    boolean isEmpty() {
+        return fields == null;
+    }
+
+    /**
+     * Compare the request and the entity loaded by this attempt with the base,
+     * the first attempt takes the loaded entity as the base.
+     */
+    Changes changes(Map<String, Object> current, Map<String, Object> requested) {
+        if(fields == null) {
+            fields = current;
+        }
+        return new Changes(differences(fields, requested), differences(fields, current));
+    }
+
+    private static Set<String> differences(Map<String, Object> from, Map<String, Object> to) {
+        return from.keySet().stream()
+                .filter(name -> !Objects.equals(from.get(name), to.get(name)))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * requested are the fields the request changes, concurrent the fields other writers changed since the base.
+     */
+    record Changes(Set<String> requested, Set<String> concurrent) {
+
+        boolean overlap() {
+            return requested.stream().anyMatch(concurrent::contains);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.davi.demo.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.FileSystemResource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test application.yml shadows the main one on the classpath, so the shipped files are parsed from disk.
+ */
+class ApplicationConfigurationTests {
+
+	@Test
+	void givenMainConfiguration_whenLoad_thenBookingPropertiesAreNested() throws Exception {
+		var properties = load("src/main/resources/application.yml");
+
+		assertThat(properties.getProperty("booking.property.cache.warm")).isEqualTo(true);
+		assertThat(properties.getProperty("booking.property.cache.expire-after-write")).isEqualTo("10m");
+		assertThat(properties.getProperty("booking.property.lock.row-lock")).isEqualTo(false);
+		assertThat(properties.getProperty("booking.idempotency.maximum-size")).isEqualTo(10000);
+		assertThat(properties.getProperty("booking.idempotency.expire-after-write")).isEqualTo("1h");
+		assertThat(properties.getProperty("booking.change-feed.sender-threads")).isEqualTo(4);
+	}
+
+	@Test
+	void givenPersistentConfiguration_whenLoad_thenStorageIsFileBacked() throws Exception {
+		var properties = load("src/main/resources/application-persistent.yml");
+
+		assertThat(properties.getProperty("booking.property.cache.warm")).isEqualTo(true);
+		assertThat(properties.getProperty("spring.datasource.url")).asString().startsWith("jdbc:h2:file:");
+	}
+
+	private static PropertySource<?> load(String path) throws Exception {
+		List<PropertySource<?>> sources = new YamlPropertySourceLoader().load(path, new FileSystemResource(path));
+		assertThat(sources).hasSize(1);
+		return sources.get(0);
+	}
+}
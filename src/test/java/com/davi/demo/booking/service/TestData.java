@@ -1,9 +1,14 @@
 package com.davi.demo.booking.service;
 
+import com.davi.demo.booking.service.common.BlockingView;
+import com.davi.demo.booking.service.common.BookingView;
+import com.davi.demo.booking.service.common.PropertyView;
 import com.davi.demo.booking.service.model.Blocking;
 import com.davi.demo.booking.service.model.Booking;
 import com.davi.demo.booking.service.model.Property;
 
+import static com.davi.demo.booking.service.common.DateUtil.parse;
+
 public class TestData {
 
     public static Booking createBooking(String name) {
@@ -14,8 +19,8 @@ public class TestData {
         booking.setName(name);
         booking.setDescription("description");
         booking.setIsCanceled(false);
-        booking.setStartDate("2024-01-01 01:00:00");
-        booking.setEndDate("2024-01-01 02:00:00");
+        booking.setStartDate(parse("2024-01-01 01:00:00"));
+        booking.setEndDate(parse("2024-01-01 02:00:00"));
         booking.setProperty(property);
         return booking;
     }
@@ -26,9 +31,20 @@ public class TestData {
 
         var blocking = new Blocking();
         blocking.setName(name);
-        blocking.setStartDate("2024-01-01 00:00:00");
-        blocking.setEndDate("2024-01-02 00:00:00");
+        blocking.setStartDate(parse("2024-01-01 00:00:00"));
+        blocking.setEndDate(parse("2024-01-02 00:00:00"));
         blocking.setProperty(property);
         return blocking;
     }
+
+    public static BookingView toView(Booking booking) {
+        return new BookingView(booking.getId(), booking.getName(), booking.getDescription(),
+                booking.getStartDate(), booking.getEndDate(), booking.getIsCanceled(),
+                new PropertyView(booking.getProperty().getId(), "House 1"), booking.getVersion());
+    }
+
+    public static BlockingView toView(Blocking blocking) {
+        return new BlockingView(blocking.getId(), blocking.getName(), blocking.getStartDate(), blocking.getEndDate(),
+                new PropertyView(blocking.getProperty().getId(), "House 1"), blocking.getVersion());
+    }
 }
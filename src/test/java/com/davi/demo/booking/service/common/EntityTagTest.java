@@ -0,0 +1,29 @@
+package com.davi.demo.booking.service.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityTagTest {
+
+    @Test
+    public void givenNoHeaderOrAny_whenRequiredVersions_thenNoCondition() {
+        assertThat(EntityTag.requiredVersions(null)).isNull();
+        assertThat(EntityTag.requiredVersions(" * ")).isNull();
+        assertThat(EntityTag.requiredVersions("\"1\", *")).isNull();
+    }
+
+    @Test
+    public void givenListOfTags_whenRequiredVersions_thenReturnEveryStrongVersion() {
+        assertThat(EntityTag.requiredVersions("\"3\"")).containsExactly(3L);
+        assertThat(EntityTag.requiredVersions("\"1\", \"2\",\"7\"")).containsExactlyInAnyOrder(1L, 2L, 7L);
+        assertThat(EntityTag.requiredVersions("W/\"1\", \"2\", \"x\", 3")).containsExactly(2L);
+    }
+
+    @Test
+    public void givenOnlyWeakOrUnknownTags_whenRequiredVersions_thenNeverMatch() {
+        assertThat(EntityTag.requiredVersions("W/\"1\"")).isEmpty();
+        assertThat(EntityTag.requiredVersions("\"abc\", \"\"")).isEmpty();
+        assertThat(EntityTag.requiredVersions("")).isEmpty();
+    }
+}
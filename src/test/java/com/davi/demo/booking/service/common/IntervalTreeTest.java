@@ -0,0 +1,94 @@
+package com.davi.demo.booking.service.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalTreeTest {
+
+    @Test
+    public void givenEmptyTree_whenFindOverlap_thenNotFound() {
+        var tree = new IntervalTree();
+
+        assertThat(tree.findOverlap(0, 10, null)).isEqualTo(IntervalTree.NOT_FOUND);
+    }
+
+    @Test
+    public void givenIntervals_whenFindOverlap_thenReturnOverlappingId() {
+        var tree = new IntervalTree();
+        tree.insert(0, 10, 1);
+        tree.insert(20, 30, 2);
+
+        assertThat(tree.findOverlap(5, 15, null)).isEqualTo(1);
+        assertThat(tree.findOverlap(25, 26, null)).isEqualTo(2);
+        assertThat(tree.findOverlap(0, 10, null)).isEqualTo(1);
+    }
+
+    @Test
+    public void givenAdjacentIntervals_whenFindOverlap_thenNotFound() {
+        var tree = new IntervalTree();
+        tree.insert(0, 10, 1);
+        tree.insert(20, 30, 2);
+
+        assertThat(tree.findOverlap(10, 20, null)).isEqualTo(IntervalTree.NOT_FOUND);
+    }
+
+    @Test
+    public void givenExcludedId_whenFindOverlap_thenIgnoreIt() {
+        var tree = new IntervalTree();
+        tree.insert(0, 10, 1);
+
+        assertThat(tree.findOverlap(0, 10, 1L)).isEqualTo(IntervalTree.NOT_FOUND);
+
+        tree.insert(5, 15, 2);
+        assertThat(tree.findOverlap(0, 10, 1L)).isEqualTo(2);
+    }
+
+    @Test
+    public void givenRemovedInterval_whenFindOverlap_thenNotFound() {
+        var tree = new IntervalTree();
+        tree.insert(0, 10, 1);
+
+        assertThat(tree.remove(0, 1)).isTrue();
+        assertThat(tree.remove(0, 1)).isFalse();
+        assertThat(tree.size()).isZero();
+        assertThat(tree.findOverlap(0, 10, null)).isEqualTo(IntervalTree.NOT_FOUND);
+    }
+
+    @Test
+    public void givenRandomIntervals_whenFindOverlap_thenMatchBruteForce() {
+        var random = new Random(42);
+        var tree = new IntervalTree();
+        var intervals = new ArrayList<IntervalTree.Interval>();
+
+        for(long id = 0; id < 2_000; id++) {
+            long start = random.nextInt(100_000);
+            long end = start + 1 + random.nextInt(500);
+            tree.insert(start, end, id);
+            intervals.add(new IntervalTree.Interval(start, end, id));
+        }
+        for(int i = 0; i < 500; i++) {
+            var removed = intervals.remove(random.nextInt(intervals.size()));
+            assertThat(tree.remove(removed.start(), removed.id())).isTrue();
+        }
+        assertThat(tree.size()).isEqualTo(intervals.size());
+
+        for(int i = 0; i < 2_000; i++) {
+            long start = random.nextInt(100_000);
+            long end = start + 1 + random.nextInt(500);
+            boolean expected = intervals.stream()
+                    .anyMatch(interval -> interval.start() < end && interval.end() > start);
+            long found = tree.findOverlap(start, end, null);
+
+            assertThat(found != IntervalTree.NOT_FOUND).isEqualTo(expected);
+            var overlaps = new ArrayList<IntervalTree.Interval>();
+            tree.forEachOverlap(start, end, overlaps::add);
+            assertThat(overlaps).hasSize((int) intervals.stream()
+                    .filter(interval -> interval.start() < end && interval.end() > start)
+                    .count());
+        }
+    }
+}
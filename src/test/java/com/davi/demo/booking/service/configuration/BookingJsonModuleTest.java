@@ -0,0 +1,104 @@
+package com.davi.demo.booking.service.configuration;
+
+import com.davi.demo.booking.service.common.BlockingView;
+import com.davi.demo.booking.service.common.BookingView;
+import com.davi.demo.booking.service.common.PropertyView;
+import com.davi.demo.booking.service.model.Blocking;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.model.Property;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.davi.demo.booking.service.TestData.createBlocking;
+import static com.davi.demo.booking.service.TestData.createBooking;
+import static com.davi.demo.booking.service.TestData.toView;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The streaming serializers must write the same bytes as the reflective bean serializers.
+ */
+class BookingJsonModuleTest {
+
+    private final ObjectMapper reflective = new Jackson2ObjectMapperBuilder().build();
+    private final ObjectMapper streaming = new Jackson2ObjectMapperBuilder().modulesToInstall(new BookingJsonModule()).build();
+
+    @Test
+    public void givenBookings_whenSerialize_thenSameBytesAsReflective() throws Exception {
+        var booking = createBooking("test");
+        booking.setId(7L);
+        booking.setVersion(3L);
+        booking.getProperty().setName("House 1");
+        var empty = new Booking();
+        empty.setIsCanceled(null);
+
+        assertSameBytes(booking);
+        assertSameBytes(empty);
+        assertSameBytes(toView(booking));
+        assertSameBytes(new BookingView(null, null, null, null, null, null, null, null));
+        assertSameBytes(List.of(booking, empty));
+    }
+
+    @Test
+    public void givenBlockings_whenSerialize_thenSameBytesAsReflective() throws Exception {
+        var blocking = createBlocking("test");
+        blocking.setId(7L);
+        blocking.setVersion(0L);
+        var empty = new Blocking();
+
+        assertSameBytes(blocking);
+        assertSameBytes(empty);
+        assertSameBytes(toView(blocking));
+        assertSameBytes(new BlockingView(null, null, null, null, null, null));
+        assertSameBytes(List.of(toView(blocking)));
+    }
+
+    @Test
+    public void givenProperties_whenSerialize_thenSameBytesAsReflective() throws Exception {
+        var property = new Property();
+        property.setId(Long.MAX_VALUE);
+        property.setName("House \"1\" é ☃ \n\t</script>");
+
+        assertSameBytes(property);
+        assertSameBytes(new Property());
+        assertSameBytes(new PropertyView(1L, property.getName()));
+        assertSameBytes(Map.of("property", property));
+    }
+
+    @Test
+    public void givenEdgeDates_whenSerialize_thenSameBytesAsReflective() throws Exception {
+        for(var date : List.of(
+                LocalDateTime.of(2024, 12, 31, 23, 59, 59, 999_999_999),
+                LocalDateTime.of(0, 1, 1, 0, 0),
+                LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+                LocalDateTime.of(10000, 1, 1, 0, 0),
+                LocalDateTime.of(-1, 1, 1, 0, 0),
+                LocalDateTime.MIN,
+                LocalDateTime.MAX)) {
+            var booking = createBooking("test");
+            booking.setStartDate(date);
+            booking.setEndDate(date);
+            assertSameBytes(booking);
+        }
+    }
+
+    @Test
+    public void givenIndentOutput_whenSerialize_thenSameBytesAsReflective() throws Exception {
+        var booking = createBooking("test");
+        var writer = SerializationFeature.INDENT_OUTPUT;
+
+        assertThat(streaming.writer(writer).writeValueAsBytes(booking))
+                .isEqualTo(reflective.writer(writer).writeValueAsBytes(booking));
+    }
+
+    private void assertSameBytes(Object value) throws Exception {
+        assertThat(new String(streaming.writeValueAsBytes(value)))
+                .isEqualTo(new String(reflective.writeValueAsBytes(value)));
+        assertThat(streaming.writeValueAsBytes(value)).isEqualTo(reflective.writeValueAsBytes(value));
+    }
+}
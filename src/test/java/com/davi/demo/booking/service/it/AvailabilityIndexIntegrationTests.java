@@ -0,0 +1,73 @@
+package com.davi.demo.booking.service.it;
+
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import com.davi.demo.booking.service.service.AvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static com.davi.demo.booking.service.TestData.createBlocking;
+import static com.davi.demo.booking.service.TestData.createBooking;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "booking.availability.index.enabled=true")
+class AvailabilityIndexIntegrationTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BlockingRepository blockingRepository;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @BeforeEach
+    void setup() {
+        bookingRepository.deleteAll();
+        blockingRepository.deleteAll();
+    }
+
+    @Test
+    void givenActiveIndex_whenCreateSameBookingTwice_thenShouldNotCreate() {
+        assertThat(availabilityIndex.isActive()).isTrue();
+
+        ResponseEntity<String> created =
+                restTemplate.postForEntity("/api/guest/bookings", createBooking("test"), String.class);
+        ResponseEntity<String> duplicated =
+                restTemplate.postForEntity("/api/guest/bookings", createBooking("test"), String.class);
+
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(duplicated.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(duplicated.getBody()).contains("Property is already booked for this period");
+        assertThat(availabilityIndex.checkConsistency()).isEmpty();
+    }
+
+    @Test
+    void givenActiveIndex_whenCreateBlocking_thenCancelBookingsAndStayConsistent() {
+        Long bookingId = bookingRepository.save(createBooking("test")).getId();
+
+        ResponseEntity<String> blocked =
+                restTemplate.postForEntity("/api/host/blockings", createBlocking("block"), String.class);
+        ResponseEntity<String> booked =
+                restTemplate.postForEntity("/api/guest/bookings", createBooking("test"), String.class);
+
+        assertThat(blocked.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(booked.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(booked.getBody()).contains("Property is blocked for this period");
+        assertThat(bookingRepository.findById(bookingId))
+                .map(Booking::getIsCanceled)
+                .hasValue(true);
+        assertThat(availabilityIndex.checkConsistency()).isEmpty();
+    }
+}
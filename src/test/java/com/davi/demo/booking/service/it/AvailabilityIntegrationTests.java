@@ -0,0 +1,168 @@
+package com.davi.demo.booking.service.it;
+
+import com.davi.demo.booking.service.common.AvailabilityCheck;
+import com.davi.demo.booking.service.common.AvailabilityResult;
+import com.davi.demo.booking.service.common.TimeSlot;
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.davi.demo.booking.service.TestData.createBlocking;
+import static com.davi.demo.booking.service.TestData.createBooking;
+import static com.davi.demo.booking.service.common.DateUtil.parse;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AvailabilityIntegrationTests {
+
+    private static final String AVAILABILITY_URL = "/api/properties/{id}/availability?from={from}&to={to}";
+    private static final String BATCH_AVAILABILITY_URL = "/api/properties/availability";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BlockingRepository blockingRepository;
+
+    @BeforeEach
+    void setup() {
+        bookingRepository.deleteAll();
+        blockingRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReturnFreeSlots() {
+        bookingRepository.save(createBooking("booked"));
+        var canceled = createBooking("canceled");
+        canceled.setStartDate(parse("2024-01-01 05:00:00"));
+        canceled.setEndDate(parse("2024-01-01 06:00:00"));
+        canceled.setIsCanceled(true);
+        bookingRepository.save(canceled);
+        var blocking = createBlocking("block");
+        blocking.setStartDate(parse("2024-01-01 03:00:00"));
+        blocking.setEndDate(parse("2024-01-01 04:00:00"));
+        blockingRepository.save(blocking);
+
+        ResponseEntity<TimeSlot[]> response = restTemplate.getForEntity(AVAILABILITY_URL, TimeSlot[].class,
+                1, "2024-01-01 00:00:00", "2024-01-01 12:00:00");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactly(
+                new TimeSlot(parse("2024-01-01 00:00:00"), parse("2024-01-01 01:00:00")),
+                new TimeSlot(parse("2024-01-01 02:00:00"), parse("2024-01-01 03:00:00")),
+                new TimeSlot(parse("2024-01-01 04:00:00"), parse("2024-01-01 12:00:00")));
+    }
+
+    @Test
+    void shouldReturnEmptyWhenFullyBlocked() {
+        blockingRepository.save(createBlocking("block"));
+
+        ResponseEntity<String> response = restTemplate.getForEntity(AVAILABILITY_URL, String.class,
+                1, "2024-01-01 06:00:00", "2024-01-01 12:00:00");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo("[]");
+    }
+
+    @Test
+    void shouldFailForNotExistingProperty() {
+        ResponseEntity<String> response = restTemplate.getForEntity(AVAILABILITY_URL, String.class,
+                99, "2024-01-01 00:00:00", "2024-01-02 00:00:00");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).contains("Property id: 99 not found");
+    }
+
+    @Test
+    void shouldFailForInvalidWindow() {
+        ResponseEntity<String> wrongOrder = restTemplate.getForEntity(AVAILABILITY_URL, String.class,
+                1, "2024-01-02 00:00:00", "2024-01-01 00:00:00");
+        ResponseEntity<String> wrongFormat = restTemplate.getForEntity(AVAILABILITY_URL, String.class,
+                1, "2024-01-01", "2024-01-02 00:00:00");
+
+        assertThat(wrongOrder.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(wrongOrder.getBody()).contains("From date must be before to date");
+        assertThat(wrongFormat.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void shouldFailForMissingWindow() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/properties/{id}/availability?from={from}",
+                String.class, 1, "2024-01-01 00:00:00");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).contains("to is required");
+    }
+
+    @Test
+    void shouldCheckManyPropertiesInOneCall() {
+        bookingRepository.save(createBooking("booked"));
+        var canceled = createBooking("canceled");
+        canceled.getProperty().setId(2L);
+        canceled.setIsCanceled(true);
+        bookingRepository.save(canceled);
+        var blocking = createBlocking("block");
+        blocking.getProperty().setId(2L);
+        blocking.setStartDate(parse("2024-01-01 12:00:00"));
+        blocking.setEndDate(parse("2024-01-01 13:00:00"));
+        blockingRepository.save(blocking);
+
+        var checks = List.of(
+                check(1L, "2024-01-01 01:30:00", "2024-01-01 03:00:00"),
+                check(1L, "2024-01-01 02:00:00", "2024-01-01 03:00:00"),
+                check(2L, "2024-01-01 01:00:00", "2024-01-01 02:00:00"),
+                check(2L, "2024-01-01 12:30:00", "2024-01-01 13:30:00"),
+                check(99L, "2024-01-01 01:00:00", "2024-01-01 02:00:00"),
+                check(1L, "2024-01-02 00:00:00", "2024-01-01 00:00:00"));
+
+        ResponseEntity<AvailabilityResult[]> response = restTemplate.postForEntity(
+                BATCH_AVAILABILITY_URL, checks, AvailabilityResult[].class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactly(
+                AvailabilityResult.of(0, false),
+                AvailabilityResult.of(1, true),
+                AvailabilityResult.of(2, true),
+                AvailabilityResult.of(3, false),
+                new AvailabilityResult(4, null, 404, "Property id: 99 not found"),
+                new AvailabilityResult(5, null, 400, "From date must be before to date"));
+    }
+
+    @Test
+    void shouldAnswerCompactResults() {
+        var checks = new ArrayList<AvailabilityCheck>();
+        for(long propertyId = 1; propertyId <= 2; propertyId++) {
+            checks.add(check(propertyId, "2024-01-01 00:00:00", "2024-01-02 00:00:00"));
+        }
+
+        ResponseEntity<String> response = restTemplate.postForEntity(BATCH_AVAILABILITY_URL, checks, String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(
+                "[{\"index\":0,\"available\":true},{\"index\":1,\"available\":true}]");
+    }
+
+    @Test
+    void shouldFailForEmptyBatch() {
+        ResponseEntity<String> response = restTemplate.postForEntity(BATCH_AVAILABILITY_URL, List.of(), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).contains("Batch must have between 1 and 1000 checks");
+    }
+
+    private static AvailabilityCheck check(Long propertyId, String startDate, String endDate) {
+        return new AvailabilityCheck(propertyId, parse(startDate), parse(endDate));
+    }
+}
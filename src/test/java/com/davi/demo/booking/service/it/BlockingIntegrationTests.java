@@ -1,5 +1,7 @@
 package com.davi.demo.booking.service.it;
 
+import com.davi.demo.booking.service.common.BlockingResult;
+import com.davi.demo.booking.service.common.CursorPage;
 import com.davi.demo.booking.service.model.Blocking;
 import com.davi.demo.booking.service.model.Booking;
 import com.davi.demo.booking.service.repository.BlockingRepository;
@@ -14,8 +16,11 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.util.Map;
+
 import static com.davi.demo.booking.service.TestData.createBlocking;
 import static com.davi.demo.booking.service.TestData.createBooking;
+import static com.davi.demo.booking.service.common.DateUtil.parse;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -49,6 +54,45 @@ class BlockingIntegrationTests {
         assertThat(response.getBody()).isEmpty();
     }
 
+    @Test
+    void shouldLoadBlockingsByProperty() {
+        blockingRepository.save(createBlocking("test"));
+
+        ResponseEntity<Blocking[]> response =
+                restTemplate.getForEntity("/api/host/blockings?propertyId=1&size=1", Blocking[].class);
+        ResponseEntity<Blocking[]> otherProperty =
+                restTemplate.getForEntity("/api/host/blockings?propertyId=2", Blocking[].class);
+
+        assertThat(response.getBody()).extracting(Blocking::getName).containsExactly("test");
+        assertThat(response.getHeaders().containsKey(CursorPage.NEXT_CURSOR_HEADER)).isFalse();
+        assertThat(otherProperty.getBody()).isEmpty();
+    }
+
+    @Test
+    void shouldExportBlockingsAsNdjson() {
+        blockingRepository.save(createBlocking("first"));
+        blockingRepository.save(createBlocking("second"));
+
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/api/host/blockings/export?propertyId=1&from={from}", String.class, "2024-01-01 12:00:00");
+        ResponseEntity<String> outside = restTemplate.getForEntity(
+                "/api/host/blockings/export?from={from}", String.class, "2024-01-02 00:00:00");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().lines()).hasSize(2);
+        assertThat(outside.getBody()).isNull();
+    }
+
+    @Test
+    void givenInvalidDate_whenExportBlockings_thenShouldReturn400() {
+        ResponseEntity<String> response =
+                restTemplate.getForEntity("/api/host/blockings/export?to=tomorrow", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody())
+                .contains("Invalid date format, correct format is yyyy-MM-dd HH:mm:ss");
+    }
+
     @Test
     void shouldLoadSingleBlocking() {
         var blocking = createBlocking("test");
@@ -81,18 +125,35 @@ class BlockingIntegrationTests {
         assertThat(booking.getIsCanceled()).isFalse();
         Long bookingId = bookingRepository.save(booking).getId();
 
+        var otherBooking = createBooking("otherBooking");
+        otherBooking.setStartDate(parse("2024-01-01 03:00:00"));
+        otherBooking.setEndDate(parse("2024-01-01 04:00:00"));
+        Long otherBookingId = bookingRepository.save(otherBooking).getId();
+        var laterBooking = createBooking("laterBooking");
+        laterBooking.setStartDate(parse("2024-01-02 03:00:00"));
+        laterBooking.setEndDate(parse("2024-01-02 04:00:00"));
+        Long laterBookingId = bookingRepository.save(laterBooking).getId();
+
         var blocking = createBlocking("testBlocking");
 
-        ResponseEntity<Void> response =
+        ResponseEntity<BlockingResult> response =
                 restTemplate.postForEntity(
                         "/api/host/blockings",
                         blocking,
-                        Void.class);
+                        BlockingResult.class);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody().id()).isNotNull();
+        assertThat(response.getBody().canceledBookings()).isEqualTo(2);
         assertThat(bookingRepository.findById(bookingId))
                 .map(Booking::getIsCanceled)
                 .hasValue(true);
+        assertThat(bookingRepository.findById(otherBookingId))
+                .map(Booking::getIsCanceled)
+                .hasValue(true);
+        assertThat(bookingRepository.findById(laterBookingId))
+                .map(Booking::getIsCanceled)
+                .hasValue(false);
 
     }
 
@@ -220,8 +281,11 @@ class BlockingIntegrationTests {
 
     @Test
     void givenBlockingWithInvalidFormatBlockingTime_whenCreateNewBlocking_thenShouldNotCreate() {
-        var blocking = createBlocking("test");
-        blocking.setStartDate("2024-01-01 12:00:00.000");
+        var blocking = Map.of(
+                "name", "test",
+                "startDate", "2024-01-01 12:00:00.000",
+                "endDate", "2024-01-02 00:00:00",
+                "property", Map.of("id", 1));
 
         ResponseEntity<String> response =
                 restTemplate.postForEntity(
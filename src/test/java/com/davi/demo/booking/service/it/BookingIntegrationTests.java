@@ -1,20 +1,30 @@
 package com.davi.demo.booking.service.it;
 
+import com.davi.demo.booking.service.common.BatchItemResult;
+import com.davi.demo.booking.service.common.CursorPage;
 import com.davi.demo.booking.service.model.Booking;
 import com.davi.demo.booking.service.model.Property;
 import com.davi.demo.booking.service.repository.BlockingRepository;
 import com.davi.demo.booking.service.repository.BookingRepository;
+import com.davi.demo.booking.service.service.BookingBatchService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
 import static com.davi.demo.booking.service.TestData.createBooking;
+import static com.davi.demo.booking.service.common.DateUtil.parse;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -48,6 +58,67 @@ class BookingIntegrationTests {
         assertThat(response.getBody()).hasSize(1);
     }
 
+    @Test
+    void shouldLoadBookingsPageByPage() {
+        for(int hour = 1; hour <= 3; hour++) {
+            var booking = createBooking("test " + hour);
+            booking.setStartDate(LocalDateTime.of(2024, 2, 1, hour, 0));
+            booking.setEndDate(LocalDateTime.of(2024, 2, 1, hour, 30));
+            bookingRepository.save(booking);
+        }
+        var canceled = createBooking("canceled");
+        canceled.setIsCanceled(true);
+        bookingRepository.save(canceled);
+
+        ResponseEntity<Booking[]> firstPage = restTemplate.getForEntity(
+                "/api/guest/bookings?propertyId=1&isCanceled=false&size=2", Booking[].class);
+
+        assertThat(firstPage.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(firstPage.getBody()).extracting(Booking::getName)
+                .containsExactly("test 1", "test 2");
+        var cursor = firstPage.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER);
+        assertThat(cursor).isNotNull();
+
+        ResponseEntity<Booking[]> lastPage = restTemplate.getForEntity(
+                "/api/guest/bookings?propertyId=1&isCanceled=false&size=2&cursor=" + cursor, Booking[].class);
+
+        assertThat(lastPage.getBody()).extracting(Booking::getName)
+                .containsExactly("test 3");
+        assertThat(lastPage.getHeaders().containsKey(CursorPage.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    @Test
+    void shouldLoadBookingsWithinDateWindow() {
+        bookingRepository.save(createBooking("test"));
+
+        ResponseEntity<Booking[]> response = restTemplate.getForEntity(
+                "/api/guest/bookings?from={from}&to={to}", Booking[].class,
+                "2024-01-01 01:30:00", "2024-01-01 03:00:00");
+        ResponseEntity<Booking[]> outside = restTemplate.getForEntity(
+                "/api/guest/bookings?from={from}", Booking[].class,
+                "2024-01-01 02:00:00");
+
+        assertThat(response.getBody()).extracting(Booking::getName).containsExactly("test");
+        assertThat(outside.getBody()).isEmpty();
+    }
+
+    @Test
+    void shouldExportBookingsAsNdjson() {
+        bookingRepository.save(createBooking("first"));
+        var canceled = createBooking("canceled");
+        canceled.setIsCanceled(true);
+        bookingRepository.save(canceled);
+
+        ResponseEntity<String> response =
+                restTemplate.getForEntity("/api/guest/bookings/export?isCanceled=false", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(response.getBody().lines())
+                .singleElement().asString()
+                .contains("\"name\":\"first\"", "\"startDate\":\"2024-01-01 01:00:00\"");
+    }
+
     @Test
     void shouldLoadSingleBooking() {
         var booking = createBooking("test");
@@ -75,6 +146,87 @@ class BookingIntegrationTests {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
     }
 
+    @Test
+    void shouldCreateBookingsInBatch() {
+        var first = createBooking("first");
+        var second = createBooking("second");
+        second.setStartDate(parse("2024-01-01 02:00:00"));
+        second.setEndDate(parse("2024-01-01 03:00:00"));
+        var conflict = createBooking("conflict");
+
+        ResponseEntity<BatchItemResult[]> response = restTemplate.postForEntity(
+                "/api/guest/bookings/batch",
+                List.of(first, second, conflict),
+                BatchItemResult[].class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).extracting(BatchItemResult::status)
+                .containsExactly(201, 201, 400);
+        assertThat(response.getBody()).extracting(BatchItemResult::id)
+                .allSatisfy(id -> assertThat(id == null || bookingRepository.existsById(id)).isTrue());
+        assertThat(bookingRepository.findAll()).extracting(Booking::getName)
+                .contains("first", "second")
+                .doesNotContain("conflict");
+    }
+
+    @Test
+    void shouldCreateBookingsInBatchFromNdjson() {
+        var body = """
+                {"name":"first","startDate":"2024-03-01 01:00:00","endDate":"2024-03-01 02:00:00","property":{"id":1}}
+                {"name":"second","startDate":"2024-03-01 01:30:00","endDate":"2024-03-01 02:30:00","property":{"id":2}}
+                """;
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+        ResponseEntity<BatchItemResult[]> response = restTemplate.postForEntity(
+                "/api/guest/bookings/batch",
+                new HttpEntity<>(body, headers),
+                BatchItemResult[].class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).extracting(BatchItemResult::status)
+                .containsExactly(201, 201);
+    }
+
+    @Test
+    void givenNdjsonOverBatchSize_whenCreateBookingsInBatch_thenRejectWithoutReadingTheRest() {
+        var line = """
+                {"name":"line","startDate":"2024-03-01 01:00:00","endDate":"2024-03-01 02:00:00","property":{"id":1}}
+                """;
+        // the line after the limit is not JSON, it must never be parsed
+        var body = line.repeat(BookingBatchService.MAX_BATCH_SIZE + 1) + "not json\n";
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "/api/guest/bookings/batch",
+                new HttpEntity<>(body, headers),
+                String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).contains("Batch must have between 1 and 1000 bookings");
+        assertThat(bookingRepository.count()).isZero();
+    }
+
+    @Test
+    void givenNdjsonWithWrongTimeFormat_whenCreateBookingsInBatch_thenShouldNotCreate() {
+        var body = """
+                {"name":"first","startDate":"2024-03-01","endDate":"2024-03-01 02:00:00","property":{"id":1}}
+                """;
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "/api/guest/bookings/batch",
+                new HttpEntity<>(body, headers),
+                String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody())
+                .contains("Invalid date format, correct format is yyyy-MM-dd HH:mm:ss");
+        assertThat(bookingRepository.count()).isZero();
+    }
+
     @Test
     void shouldUpdateBooking() {
         var booking = createBooking("test");
@@ -123,6 +275,18 @@ class BookingIntegrationTests {
                 .contains("Id must be a number");
     }
 
+    @Test
+    void givenInvalidPageSize_whenGetBookings_thenShouldReturn400() {
+        ResponseEntity<String> response =
+                restTemplate.getForEntity(
+                        "/api/guest/bookings?size=a",
+                        String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody())
+                .contains("size has an invalid value");
+    }
+
     @Test
     void givenNotExistingBooking_whenGetBooking_thenShouldReturn404() {
         ResponseEntity<String> response =
@@ -294,8 +458,11 @@ class BookingIntegrationTests {
 
     @Test
     void givenABookingWithWrongTimeFormat_whenCreateNewBooking_thenShouldNotCreate() {
-        var booking = createBooking("test");
-        booking.setStartDate("2024-01-01 1:00 PM");
+        var booking = Map.of(
+                "name", "test",
+                "startDate", "2024-01-01 1:00 PM",
+                "endDate", "2024-01-01 02:00:00",
+                "property", Map.of("id", 1));
 
         ResponseEntity<String> response =
                 restTemplate.postForEntity(
@@ -331,7 +498,7 @@ class BookingIntegrationTests {
         bookingRepository.save(booking);
 
         var subject = createBooking("test");
-        subject.setStartDate("2024-01-01 09:00:00");
+        subject.setStartDate(parse("2024-01-01 09:00:00"));
 
         Long id = bookingRepository.save(subject).getId();
         subject.setStartDate(time);
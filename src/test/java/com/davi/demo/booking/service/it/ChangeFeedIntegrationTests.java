@@ -0,0 +1,176 @@
+package com.davi.demo.booking.service.it;
+
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static com.davi.demo.booking.service.TestData.createBlocking;
+import static com.davi.demo.booking.service.TestData.createBooking;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ChangeFeedIntegrationTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BlockingRepository blockingRepository;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setup() {
+        bookingRepository.deleteAll();
+        blockingRepository.deleteAll();
+    }
+
+    @Test
+    void shouldStreamCommittedChangesOfProperty() throws Exception {
+        try(var feed = open("/api/changes?propertyId=1", null)) {
+            var other = createBooking("other property");
+            other.getProperty().setId(2L);
+            restTemplate.postForEntity("/api/guest/bookings", other, Void.class);
+            restTemplate.postForEntity("/api/guest/bookings", createBooking("streamed"), Void.class);
+            restTemplate.postForEntity("/api/host/blockings", createBlocking("blocking"), String.class);
+
+            var events = feed.readUntil(lines -> lines.stream().filter(line -> line.startsWith("data:")).count() == 3);
+
+            var data = events.stream().filter(line -> line.startsWith("data:")).toList();
+            assertThat(events).contains("event:change");
+            assertThat(data.get(0)).contains("\"type\":\"BOOKING\"", "\"action\":\"CREATED\"", "\"propertyId\":1");
+            assertThat(data.get(1)).contains("\"type\":\"BLOCKING\"", "\"action\":\"CREATED\"");
+            assertThat(data.get(2)).contains("\"type\":\"BOOKING\"", "\"action\":\"CANCELED\"", "\"active\":false");
+            assertThat(data).noneMatch(line -> line.contains("\"propertyId\":2"));
+        }
+    }
+
+    @Test
+    void shouldResumeAfterLastEventId() throws Exception {
+        String lastEventId;
+        try(var feed = open("/api/changes", null)) {
+            restTemplate.postForEntity("/api/guest/bookings", createBooking("first"), Void.class);
+            var events = feed.readUntil(lines -> lines.stream().anyMatch(line -> line.startsWith("data:")));
+            lastEventId = events.stream().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3);
+        }
+
+        var id = bookingRepository.findAll().get(0).getId();
+        var booking = createBooking("missed");
+        restTemplate.put("/api/guest/bookings/" + id, booking);
+
+        try(var feed = open("/api/changes", lastEventId)) {
+            var events = feed.readUntil(lines -> lines.stream().anyMatch(line -> line.startsWith("data:")));
+
+            assertThat(events).anyMatch(line -> line.startsWith("data:") && line.contains("\"action\":\"UPDATED\""));
+            var separator = lastEventId.indexOf('-');
+            assertThat(events).contains("id:" + lastEventId.substring(0, separator + 1)
+                    + (Long.parseLong(lastEventId.substring(separator + 1)) + 1));
+        }
+    }
+
+    @Test
+    void shouldSendResetForUnknownLastEventId() throws Exception {
+        try(var feed = open("/api/changes", "999999999")) {
+            var events = feed.readUntil(lines -> lines.stream().anyMatch(line -> line.startsWith("data:")));
+
+            assertThat(events).contains("event:reset");
+            assertThat(events).anyMatch(line -> line.startsWith("data:") && line.contains("\"sequence\""));
+        }
+    }
+
+    @Test
+    void shouldSendResetForLastEventIdOfPreviousRun() throws Exception {
+        restTemplate.postForEntity("/api/guest/bookings", createBooking("first"), Void.class);
+
+        try(var feed = open("/api/changes", "1-0")) {
+            var events = feed.readUntil(lines -> lines.stream().anyMatch(line -> line.startsWith("data:")));
+
+            assertThat(events).contains("event:reset");
+            assertThat(events).noneMatch(line -> line.equals("event:change"));
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidLastEventId() {
+        var headers = new HttpHeaders();
+        headers.set("Last-Event-ID", "1-abc");
+        var response = restTemplate.exchange("/api/changes", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).contains("Last-Event-ID must be a change feed event id");
+    }
+
+    @Test
+    void shouldRejectInvalidPropertyId() {
+        var response = restTemplate.getForEntity("/api/changes?propertyId=abc", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private Feed open(String path, String lastEventId) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE);
+        if(lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        var response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+        var reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8));
+        // the first comment is sent on connect, so the subscription exists once it is read
+        assertThat(reader.readLine()).isEqualTo(":connected");
+        return new Feed(reader);
+    }
+
+    private record Feed(BufferedReader reader) implements AutoCloseable {
+
+        List<String> readUntil(Predicate<List<String>> done) throws Exception {
+            return CompletableFuture.supplyAsync(() -> {
+                var lines = new ArrayList<String>();
+                try {
+                    String line;
+                    while(!done.test(lines) && (line = reader.readLine()) != null) {
+                        lines.add(line);
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                return lines;
+            }).get(10, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public void close() throws Exception {
+            reader.close();
+        }
+    }
+}
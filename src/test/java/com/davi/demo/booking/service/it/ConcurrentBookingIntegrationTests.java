@@ -0,0 +1,116 @@
+package com.davi.demo.booking.service.it;
+
+import com.davi.demo.booking.service.model.Blocking;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import com.davi.demo.booking.service.service.PropertyLocks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.davi.demo.booking.service.TestData.createBlocking;
+import static com.davi.demo.booking.service.TestData.createBooking;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ConcurrentBookingIntegrationTests {
+
+    private static final int THREADS = 16;
+    private static final int REQUESTS = 400;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BlockingRepository blockingRepository;
+
+    @Autowired
+    private PropertyLocks propertyLocks;
+
+    @BeforeEach
+    void setup() {
+        bookingRepository.deleteAll();
+        blockingRepository.deleteAll();
+    }
+
+    @Test
+    void givenConcurrentWrites_whenCreateBookingsAndBlockings_thenNoOverlaps() throws Exception {
+        var random = new Random(42);
+        var tasks = new ArrayList<Callable<HttpStatus>>();
+        for(int i = 0; i < REQUESTS; i++) {
+            long propertyId = 1 + random.nextInt(2);
+            int startHour = random.nextInt(20);
+            int hours = 1 + random.nextInt(3);
+            var startDate = LocalDateTime.of(2024, 5, 1, startHour, 0);
+            var endDate = startDate.plusHours(hours);
+
+            if(i % 20 == 0) {
+                var blocking = createBlocking("block " + i);
+                blocking.getProperty().setId(propertyId);
+                blocking.setStartDate(startDate);
+                blocking.setEndDate(endDate);
+                tasks.add(() -> post("/api/host/blockings", blocking));
+            } else {
+                var booking = createBooking("booking " + i);
+                booking.getProperty().setId(propertyId);
+                booking.setStartDate(startDate);
+                booking.setEndDate(endDate);
+                tasks.add(() -> post("/api/guest/bookings", booking));
+            }
+        }
+        long acquisitions = propertyLocks.stats().acquisitions();
+
+        var executor = Executors.newFixedThreadPool(THREADS);
+        List<HttpStatus> statuses = new ArrayList<>();
+        try {
+            for(Future<HttpStatus> future : executor.invokeAll(tasks)) {
+                statuses.add(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(statuses).containsOnly(HttpStatus.CREATED, HttpStatus.BAD_REQUEST);
+        assertThat(statuses).contains(HttpStatus.CREATED);
+        assertThat(propertyLocks.stats().acquisitions() - acquisitions).isEqualTo(REQUESTS);
+
+        var bookings = bookingRepository.findByIsCanceled(false);
+        var blockings = blockingRepository.findAll();
+        for(var booking : bookings) {
+            assertThat(bookings)
+                    .filteredOn(other -> !other.getId().equals(booking.getId()))
+                    .noneMatch(other -> overlaps(booking, other.getProperty().getId(), other.getStartDate(), other.getEndDate()));
+            assertThat(blockings)
+                    .noneMatch(blocking -> overlaps(booking, blocking));
+        }
+    }
+
+    private HttpStatus post(String url, Object body) {
+        return HttpStatus.valueOf(restTemplate.postForEntity(url, body, String.class).getStatusCode().value());
+    }
+
+    private static boolean overlaps(Booking booking, Blocking blocking) {
+        return overlaps(booking, blocking.getProperty().getId(), blocking.getStartDate(), blocking.getEndDate());
+    }
+
+    private static boolean overlaps(Booking booking, Long propertyId, LocalDateTime startDate, LocalDateTime endDate) {
+        return booking.getProperty().getId().equals(propertyId)
+                && booking.getStartDate().isBefore(endDate)
+                && booking.getEndDate().isAfter(startDate);
+    }
+}
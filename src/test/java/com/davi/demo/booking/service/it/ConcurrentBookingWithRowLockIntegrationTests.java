@@ -0,0 +1,11 @@
+package com.davi.demo.booking.service.it;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Same concurrent writes with the Property rows locked as well, as needed by several instances.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "booking.property.lock.row-lock=true")
+class ConcurrentBookingWithRowLockIntegrationTests extends ConcurrentBookingIntegrationTests {
+}
@@ -0,0 +1,147 @@
+package com.davi.demo.booking.service.it;
+
+import com.davi.demo.booking.service.model.Blocking;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static com.davi.demo.booking.service.TestData.createBlocking;
+import static com.davi.demo.booking.service.TestData.createBooking;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ConditionalRequestIntegrationTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BlockingRepository blockingRepository;
+
+    @BeforeEach
+    void setup() {
+        bookingRepository.deleteAll();
+        blockingRepository.deleteAll();
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWhenBookingETagMatches() {
+        var id = bookingRepository.save(createBooking("test")).getId();
+
+        ResponseEntity<Booking> response = restTemplate.getForEntity("/api/guest/bookings/" + id, Booking.class);
+        var eTag = response.getHeaders().getETag();
+        ResponseEntity<String> notModified = restTemplate.exchange(
+                "/api/guest/bookings/" + id, HttpMethod.GET, withHeader(HttpHeaders.IF_NONE_MATCH, eTag), String.class);
+
+        assertThat(eTag).isEqualTo("\"0\"");
+        assertThat(response.getBody().getVersion()).isZero();
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(notModified.getHeaders().getETag()).isEqualTo(eTag);
+        assertThat(notModified.getBody()).isNull();
+    }
+
+    @Test
+    void shouldReturnBookingWhenETagIsStale() {
+        var booking = bookingRepository.save(createBooking("test"));
+        booking.setName("updated");
+
+        ResponseEntity<Void> updated = restTemplate.exchange("/api/guest/bookings/" + booking.getId(),
+                HttpMethod.PUT, withHeader(HttpHeaders.IF_MATCH, "\"0\"", booking), Void.class);
+        ResponseEntity<Booking> response = restTemplate.exchange("/api/guest/bookings/" + booking.getId(),
+                HttpMethod.GET, withHeader(HttpHeaders.IF_NONE_MATCH, "\"0\""), Booking.class);
+
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"1\"");
+        assertThat(response.getBody().getName()).isEqualTo("updated");
+    }
+
+    @Test
+    void shouldRejectBookingUpdateAndDeleteWithStaleETag() {
+        var booking = bookingRepository.save(createBooking("test"));
+        var id = booking.getId();
+        booking.setName("updated");
+
+        ResponseEntity<String> update = restTemplate.exchange("/api/guest/bookings/" + id,
+                HttpMethod.PUT, withHeader(HttpHeaders.IF_MATCH, "\"7\"", booking), String.class);
+        ResponseEntity<String> delete = restTemplate.exchange("/api/guest/bookings/" + id,
+                HttpMethod.DELETE, withHeader(HttpHeaders.IF_MATCH, "W/\"0\""), String.class);
+
+        assertThat(update.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(update.getBody()).contains("was modified, current version is 0");
+        assertThat(delete.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(bookingRepository.findById(id)).get().extracting(Booking::getName).isEqualTo("test");
+    }
+
+    @Test
+    void shouldUpdateBookingWhenAnyETagOfTheListMatches() {
+        var booking = bookingRepository.save(createBooking("test"));
+        var id = booking.getId();
+        booking.setName("updated");
+
+        ResponseEntity<String> stale = restTemplate.exchange("/api/guest/bookings/" + id,
+                HttpMethod.PUT, withHeader(HttpHeaders.IF_MATCH, "\"1\", W/\"0\", \"2\"", booking), String.class);
+        ResponseEntity<String> update = restTemplate.exchange("/api/guest/bookings/" + id,
+                HttpMethod.PUT, withHeader(HttpHeaders.IF_MATCH, "\"1\", \"0\"", booking), String.class);
+
+        assertThat(stale.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(update.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(bookingRepository.findById(id)).get().extracting(Booking::getName).isEqualTo("updated");
+    }
+
+    @Test
+    void shouldDeleteBlockingWithCurrentETag() {
+        var id = blockingRepository.save(createBlocking("test")).getId();
+
+        ResponseEntity<Blocking> response = restTemplate.getForEntity("/api/host/blockings/" + id, Blocking.class);
+        ResponseEntity<Void> delete = restTemplate.exchange("/api/host/blockings/" + id, HttpMethod.DELETE,
+                withHeader(HttpHeaders.IF_MATCH, response.getHeaders().getETag()), Void.class);
+
+        assertThat(delete.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(blockingRepository.existsById(id)).isFalse();
+    }
+
+    @Test
+    void shouldChangeBookingETagWhenBlockingCancelsIt() {
+        var id = bookingRepository.save(createBooking("test")).getId();
+
+        restTemplate.postForEntity("/api/host/blockings", createBlocking("blocking"), String.class);
+        ResponseEntity<Booking> response = restTemplate.exchange("/api/guest/bookings/" + id,
+                HttpMethod.GET, withHeader(HttpHeaders.IF_NONE_MATCH, "\"0\""), Booking.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"1\"");
+        assertThat(response.getBody().getIsCanceled()).isTrue();
+    }
+
+    @Test
+    void shouldAnswerNotFoundForConditionalGetOfMissingBlocking() {
+        ResponseEntity<String> response = restTemplate.exchange("/api/host/blockings/999999",
+                HttpMethod.GET, withHeader(HttpHeaders.IF_NONE_MATCH, "\"0\""), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private static HttpEntity<Object> withHeader(String name, String value) {
+        return withHeader(name, value, null);
+    }
+
+    private static HttpEntity<Object> withHeader(String name, String value, Object body) {
+        var headers = new HttpHeaders();
+        headers.set(name, value);
+        return new HttpEntity<>(body, headers);
+    }
+}
@@ -0,0 +1,40 @@
+package com.davi.demo.booking.service.it;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=250"
+})
+class ConnectionPoolLimitIntegrationTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void givenNoFreeConnection_whenGetBooking_thenShouldReturn503() throws Exception {
+        ResponseEntity<String> response;
+        try(var connection = dataSource.getConnection()) {
+            response = restTemplate.getForEntity("/api/guest/bookings/1", String.class);
+        }
+        ResponseEntity<String> afterRelease = restTemplate.getForEntity("/api/guest/bookings/1", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getBody()).contains("Service is busy, try again later");
+        assertThat(afterRelease.getStatusCode()).isIn(HttpStatus.OK, HttpStatus.NOT_FOUND);
+    }
+}
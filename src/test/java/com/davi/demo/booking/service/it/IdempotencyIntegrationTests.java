@@ -0,0 +1,99 @@
+package com.davi.demo.booking.service.it;
+
+import com.davi.demo.booking.service.common.BlockingResult;
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import com.davi.demo.booking.service.service.IdempotencyStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.UUID;
+
+import static com.davi.demo.booking.service.TestData.createBlocking;
+import static com.davi.demo.booking.service.TestData.createBooking;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class IdempotencyIntegrationTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BlockingRepository blockingRepository;
+
+    @BeforeEach
+    void setup() {
+        bookingRepository.deleteAll();
+        blockingRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReplayBookingWithSameIdempotencyKey() {
+        var request = withKey(createBooking("retried"), UUID.randomUUID().toString());
+
+        ResponseEntity<Void> first = restTemplate.postForEntity("/api/guest/bookings", request, Void.class);
+        ResponseEntity<String> retry = restTemplate.postForEntity("/api/guest/bookings", request, String.class);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(first.getHeaders().containsKey(IdempotencyStore.REPLAYED_HEADER)).isFalse();
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(bookingRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectSameBookingWithoutIdempotencyKey() {
+        var booking = createBooking("retried");
+
+        restTemplate.postForEntity("/api/guest/bookings", booking, Void.class);
+        ResponseEntity<String> retry = restTemplate.postForEntity("/api/guest/bookings", booking, String.class);
+
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(retry.getBody()).contains("Property is already booked for this period");
+    }
+
+    @Test
+    void shouldRejectIdempotencyKeyReusedWithOtherBooking() {
+        var key = UUID.randomUUID().toString();
+        var other = createBooking("other");
+        other.setDescription("other description");
+
+        restTemplate.postForEntity("/api/guest/bookings", withKey(createBooking("retried"), key), Void.class);
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/guest/bookings", withKey(other, key), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).contains("was already used with a different request");
+    }
+
+    @Test
+    void shouldReplayBlockingResultWithSameIdempotencyKey() {
+        bookingRepository.save(createBooking("canceled"));
+        var request = withKey(createBlocking("retried"), UUID.randomUUID().toString());
+
+        ResponseEntity<BlockingResult> first = restTemplate.postForEntity("/api/host/blockings", request, BlockingResult.class);
+        ResponseEntity<BlockingResult> retry = restTemplate.postForEntity("/api/host/blockings", request, BlockingResult.class);
+
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getBody()).isEqualTo(first.getBody());
+        assertThat(retry.getBody().canceledBookings()).isEqualTo(1);
+        assertThat(blockingRepository.count()).isEqualTo(1);
+    }
+
+    private static <T> HttpEntity<T> withKey(T body, String key) {
+        var headers = new HttpHeaders();
+        headers.set(IdempotencyStore.HEADER, key);
+        return new HttpEntity<>(body, headers);
+    }
+}
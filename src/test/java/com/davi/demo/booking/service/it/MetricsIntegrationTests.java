@@ -0,0 +1,59 @@
+package com.davi.demo.booking.service.it;
+
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static com.davi.demo.booking.service.TestData.createBlocking;
+import static com.davi.demo.booking.service.TestData.createBooking;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MetricsIntegrationTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BlockingRepository blockingRepository;
+
+    @BeforeEach
+    void setup() {
+        bookingRepository.deleteAll();
+        blockingRepository.deleteAll();
+    }
+
+    @Test
+    void givenRejectedAndCanceledBookings_whenScrapePrometheus_thenExposeMetrics() {
+        restTemplate.postForEntity("/api/guest/bookings", createBooking("test"), Void.class);
+        restTemplate.postForEntity("/api/guest/bookings", createBooking("test"), String.class);
+        restTemplate.postForEntity("/api/host/blockings", createBlocking("block"), Void.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("uri=\"/api/guest/bookings\"")
+                .contains("spring_data_repository_invocations_seconds_bucket{")
+                .contains("method=\"findBookingsByPropertyAndBookingTimeRangeAndStatus\"")
+                .contains("method=\"findBlockingsByPropertyAndBlockingTimeRange\"")
+                .contains("booking_conflicts_rejected_total{entity=\"booking\",reason=\"booked\"")
+                .contains("booking_auto_canceled_total")
+                .contains("booking_validation_failures_total{type=\"BadRequestException\"")
+                .contains("booking_property_lock_acquisitions_total")
+                .contains("cache_gets_total{cache=\"properties\"")
+                .contains("hikaricp_connections_active");
+    }
+}
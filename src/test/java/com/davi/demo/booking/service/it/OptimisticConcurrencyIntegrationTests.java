@@ -0,0 +1,155 @@
+package com.davi.demo.booking.service.it;
+
+import com.davi.demo.booking.service.exception.ConflictException;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import com.davi.demo.booking.service.service.BookingMetrics;
+import com.davi.demo.booking.service.service.BookingService;
+import com.davi.demo.booking.service.service.OptimisticRetry;
+import com.davi.demo.booking.service.service.UpdateBase;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static com.davi.demo.booking.service.TestData.createBooking;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OptimisticConcurrencyIntegrationTests {
+
+    private static final int THREADS = 8;
+    private static final int REQUESTS = 40;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BlockingRepository blockingRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        bookingRepository.deleteAll();
+        blockingRepository.deleteAll();
+    }
+
+    @Test
+    void givenConcurrentUpdatesOfSameVersion_whenPut_thenOneSucceedsAndOthersConflict() throws Exception {
+        var id = bookingRepository.save(createBooking("test")).getId();
+        var tasks = new ArrayList<Callable<HttpStatus>>();
+        for(int i = 0; i < REQUESTS; i++) {
+            var booking = createBooking("update " + i);
+            booking.setVersion(0L);
+            tasks.add(() -> put(id, booking));
+        }
+
+        var executor = Executors.newFixedThreadPool(THREADS);
+        List<HttpStatus> statuses = new ArrayList<>();
+        try {
+            for(Future<HttpStatus> future : executor.invokeAll(tasks)) {
+                statuses.add(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(statuses).containsOnly(HttpStatus.OK, HttpStatus.CONFLICT);
+        assertThat(statuses).filteredOn(HttpStatus.OK::equals).hasSize(1);
+        assertThat(bookingRepository.findById(id)).get().extracting(Booking::getVersion).isEqualTo(1L);
+    }
+
+    @Test
+    void givenOtherFieldUpdatedDuringTransaction_whenCommit_thenRetryKeepingBothChanges() {
+        var id = bookingRepository.save(createBooking("test")).getId();
+        var retries = retries();
+        var attempts = new AtomicInteger();
+
+        updateWithConcurrentChange(id, attempts, booking -> booking.setDescription("concurrent"));
+
+        var booking = bookingRepository.findById(id).orElseThrow();
+        assertThat(attempts).hasValue(2);
+        assertThat(booking.getName()).isEqualTo("retried");
+        assertThat(booking.getDescription()).isEqualTo("concurrent");
+        assertThat(booking.getVersion()).isEqualTo(2L);
+        assertThat(retries() - retries).isEqualTo(1);
+    }
+
+    @Test
+    void givenSameFieldUpdatedDuringTransaction_whenCommit_thenConflict() {
+        var id = bookingRepository.save(createBooking("test")).getId();
+        var retries = retries();
+        var attempts = new AtomicInteger();
+
+        var exception = assertThrows(ConflictException.class,
+                () -> updateWithConcurrentChange(id, attempts, booking -> booking.setName("concurrent")));
+
+        var booking = bookingRepository.findById(id).orElseThrow();
+        assertThat(exception.getMessage()).isEqualTo("Booking id: " + id + " was modified concurrently, reload it and try again");
+        assertThat(retries() - retries).isEqualTo(1);
+        assertThat(booking.getName()).isEqualTo("concurrent");
+        assertThat(booking.getVersion()).isEqualTo(1L);
+    }
+
+    /**
+     * Rename the Booking to "retried" while, during the first attempt, another writer commits change.
+     */
+    private void updateWithConcurrentChange(Long id, AtomicInteger attempts, Consumer<Booking> change) {
+        var base = new UpdateBase();
+        var transaction = new TransactionTemplate(transactionManager);
+        optimisticRetry.run(BookingMetrics.BOOKING, id, () -> transaction.executeWithoutResult(status -> {
+            bookingService.updateBooking(id, createBooking("retried"), null, base);
+            if(attempts.incrementAndGet() == 1) {
+                // the other writer does not lock the Property, the update above holds it until commit
+                CompletableFuture.runAsync(() -> {
+                    var booking = bookingRepository.findById(id).orElseThrow();
+                    change.accept(booking);
+                    bookingRepository.save(booking);
+                }).orTimeout(10, TimeUnit.SECONDS).join();
+            }
+        }));
+    }
+
+    private HttpStatus put(Long id, Booking booking) {
+        var response = restTemplate.exchange("/api/guest/bookings/" + id, HttpMethod.PUT, new HttpEntity<>(booking), String.class);
+        return HttpStatus.valueOf(response.getStatusCode().value());
+    }
+
+    private double retries() {
+        var counter = meterRegistry.find("booking.optimistic.retries").tag("entity", BookingMetrics.BOOKING).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,165 @@
+package com.davi.demo.booking.service.it;
+
+import com.davi.demo.booking.service.model.Property;
+import com.davi.demo.booking.service.repository.AvailabilityRepository;
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.davi.demo.booking.service.common.DateUtil.parse;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAIN the SQL of the repository overlap queries on H2, as Hibernate generates it,
+ * a table scan means the predicates no longer match the overlap indexes.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OverlapQueryPlanIntegrationTests {
+
+    private static final String TABLE_SCAN = "tableScan";
+    private static final LocalDateTime START = parse("2024-01-01 00:00:00");
+    private static final LocalDateTime END = parse("2024-01-02 00:00:00");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BlockingRepository blockingRepository;
+
+    @Autowired
+    private SqlRecorder sqlRecorder;
+
+    @Test
+    void givenBookingOverlapQuery_whenExplain_thenUsePropertyIndex() {
+        var sql = sqlRecorder.record(
+                () -> bookingRepository.findBookingsByPropertyAndBookingTimeRangeAndStatus(property(), START, END, false));
+
+        assertThat(explain(sql))
+                .doesNotContain(TABLE_SCAN)
+                .containsIgnoringCase("IDX_BOOKING_PROPERTY_ID_IS_CANCELED_DATES")
+                .contains("START_DATE\" <");
+    }
+
+    @Test
+    void givenBlockingOverlapQuery_whenExplain_thenUsePropertyIndex() {
+        var sql = sqlRecorder.record(
+                () -> blockingRepository.findBlockingsByPropertyAndBlockingTimeRange(property(), START, END));
+
+        assertThat(explain(sql))
+                .doesNotContain(TABLE_SCAN)
+                .containsIgnoringCase("IDX_BLOCKING_PROPERTY_ID_DATES")
+                .contains("START_DATE\" <");
+    }
+
+    @Test
+    void givenBatchOverlapQuery_whenExplain_thenUsePropertyIndex() {
+        var sql = sqlRecorder.record(
+                () -> bookingRepository.findActiveBookingsByPropertiesAndTimeRange(List.of(1L, 2L), START, END));
+
+        assertThat(explain(sql))
+                .doesNotContain(TABLE_SCAN)
+                .containsIgnoringCase("IDX_BOOKING_PROPERTY_ID_IS_CANCELED_DATES");
+    }
+
+    @Test
+    void givenAvailabilityCheckQuery_whenExplain_thenUsePropertyIndexes() {
+        var plan = jdbcTemplate.queryForObject("EXPLAIN " + AvailabilityRepository.CHECK_SQL, String.class,
+                new Long[]{1L, 2L}, new LocalDateTime[]{START, START}, new LocalDateTime[]{END, END});
+
+        assertThat(plan)
+                .doesNotContain(TABLE_SCAN)
+                .containsIgnoringCase("IDX_BOOKING_PROPERTY_ID_IS_CANCELED_DATES")
+                .containsIgnoringCase("IDX_BLOCKING_PROPERTY_ID_DATES");
+    }
+
+    private static Property property() {
+        var property = new Property();
+        property.setId(1L);
+        return property;
+    }
+
+    /**
+     * EXPLAIN sql with a sample value for each parameter of the type H2 expects.
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try(var statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                var parameters = statement.getParameterMetaData();
+                for(int i = 1; i <= parameters.getParameterCount(); i++) {
+                    statement.setObject(i, switch(parameters.getParameterType(i)) {
+                        case Types.BOOLEAN -> false;
+                        case Types.TIMESTAMP -> START;
+                        default -> 1L;
+                    });
+                }
+                try(var result = statement.executeQuery()) {
+                    result.next();
+                    return result.getString(1);
+                }
+            }
+        });
+    }
+
+    /**
+     * Records the SQL Hibernate prepares on the calling thread.
+     */
+    static class SqlRecorder implements StatementInspector {
+
+        private final ThreadLocal<List<String>> recording = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            var statements = recording.get();
+            if(statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+
+        /**
+         * The only statement the query prepares.
+         */
+        String record(Runnable query) {
+            var statements = new ArrayList<String>();
+            recording.set(statements);
+            try {
+                query.run();
+            } finally {
+                recording.remove();
+            }
+            assertThat(statements).hasSize(1);
+            return statements.get(0);
+        }
+    }
+
+    @TestConfiguration
+    static class SqlRecorderConfiguration {
+
+        @Bean
+        SqlRecorder sqlRecorder() {
+            return new SqlRecorder();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer sqlRecorderCustomizer(SqlRecorder sqlRecorder) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlRecorder);
+        }
+    }
+}
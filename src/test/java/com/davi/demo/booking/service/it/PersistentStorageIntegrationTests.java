@@ -0,0 +1,63 @@
+package com.davi.demo.booking.service.it;
+
+import com.davi.demo.booking.service.BookingServiceApplication;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import com.davi.demo.booking.service.repository.ReactiveReadRepository;
+import com.davi.demo.booking.service.service.AvailabilityIndex;
+import com.davi.demo.booking.service.service.BookingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.davi.demo.booking.service.TestData.createBooking;
+import static com.davi.demo.booking.service.common.DateUtil.parse;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersistentStorageIntegrationTests {
+
+    @TempDir
+    private Path dataDir;
+
+    @Test
+    void givenPersistentProfile_whenRestart_thenKeepDataAndSkipAppliedChangesets() {
+        long changesets;
+        Long bookingId;
+        try(var context = start()) {
+            var booking = createBooking("durable");
+            booking.setStartDate(parse("2030-01-01 10:00:00"));
+            booking.setEndDate(parse("2030-01-01 12:00:00"));
+            context.getBean(BookingService.class).createBooking(booking);
+            bookingId = booking.getId();
+            changesets = countChangesets(context);
+        }
+        assertThat(Files.exists(dataDir.resolve("booking.mv.db"))).isTrue();
+
+        try(var context = start()) {
+            assertThat(context.getBean(BookingRepository.class).findAll())
+                    .anyMatch(booking -> booking.getName().equals("durable"));
+            assertThat(countChangesets(context)).isEqualTo(changesets);
+            assertThat(context.getBean(ReactiveReadRepository.class).findBookingById(bookingId).block())
+                    .extracting(Booking::getName).isEqualTo("durable");
+            assertThat(context.getBean(AvailabilityIndex.class).isActive()).isTrue();
+            assertThat(context.getBean(AvailabilityIndex.class).checkConsistency()).isEmpty();
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(BookingServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("persistent")
+                .run("--booking.storage.dir=" + dataDir.toAbsolutePath());
+    }
+
+    private static long countChangesets(ConfigurableApplicationContext context) {
+        return context.getBean(JdbcTemplate.class).queryForObject("SELECT COUNT(*) FROM databasechangelog", Long.class);
+    }
+}
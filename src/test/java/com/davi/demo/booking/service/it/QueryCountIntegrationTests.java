@@ -0,0 +1,140 @@
+package com.davi.demo.booking.service.it;
+
+import com.davi.demo.booking.service.model.Blocking;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+
+import static com.davi.demo.booking.service.TestData.createBlocking;
+import static com.davi.demo.booking.service.TestData.createBooking;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Count the SQL statements of each read endpoint with Hibernate statistics,
+ * Bookings and Blockings of several Properties must be read with their Property in one query,
+ * as views so no entity is loaded.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class QueryCountIntegrationTests {
+
+    private static final int ROWS_PER_PROPERTY = 3;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BlockingRepository blockingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long bookingId;
+    private Long blockingId;
+
+    @BeforeEach
+    void setup() {
+        bookingRepository.deleteAll();
+        blockingRepository.deleteAll();
+
+        var bookings = new ArrayList<Booking>();
+        var blockings = new ArrayList<Blocking>();
+        for(long propertyId = 1; propertyId <= 2; propertyId++) {
+            for(int i = 0; i < ROWS_PER_PROPERTY; i++) {
+                var booking = createBooking("booking " + i);
+                booking.getProperty().setId(propertyId);
+                booking.setStartDate(booking.getStartDate().plusDays(i));
+                booking.setEndDate(booking.getEndDate().plusDays(i));
+                bookings.add(booking);
+
+                var blocking = createBlocking("blocking " + i);
+                blocking.getProperty().setId(propertyId);
+                blocking.setStartDate(blocking.getStartDate().plusDays(i));
+                blocking.setEndDate(blocking.getEndDate().plusDays(i));
+                blockings.add(blocking);
+            }
+        }
+        bookingId = bookingRepository.saveAll(bookings).get(0).getId();
+        blockingId = blockingRepository.saveAll(blockings).get(0).getId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void givenBookingsOfSeveralProperties_whenList_thenOneStatement() {
+        var body = get("/api/guest/bookings");
+
+        assertThat(body).contains("House 1", "House 2");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void givenBlockingsOfSeveralProperties_whenList_thenOneStatement() {
+        var body = get("/api/host/blockings");
+
+        assertThat(body).contains("House 1", "House 2");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void givenBookingsOfSeveralProperties_whenExport_thenOneStatement() {
+        var body = get("/api/guest/bookings/export");
+
+        assertThat(body.lines()).hasSize(2 * ROWS_PER_PROPERTY);
+        assertThat(body).contains("House 1", "House 2");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void givenBlockingsOfSeveralProperties_whenExport_thenOneStatement() {
+        var body = get("/api/host/blockings/export");
+
+        assertThat(body.lines()).hasSize(2 * ROWS_PER_PROPERTY);
+        assertThat(body).contains("House 1", "House 2");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void givenBookingAndBlocking_whenGetById_thenOneStatementEach() {
+        var booking = get("/api/guest/bookings/" + bookingId);
+        var blocking = get("/api/host/blockings/" + blockingId);
+
+        assertThat(booking).contains("House 1");
+        assertThat(blocking).contains("House 1");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private String get(String url) {
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+}
@@ -0,0 +1,110 @@
+package com.davi.demo.booking.service.it;
+
+import com.davi.demo.booking.service.model.Blocking;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import static com.davi.demo.booking.service.TestData.createBlocking;
+import static com.davi.demo.booking.service.TestData.createBooking;
+import static com.davi.demo.booking.service.common.DateUtil.parse;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReactiveReadIntegrationTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BlockingRepository blockingRepository;
+
+    @BeforeEach
+    void setup() {
+        bookingRepository.deleteAll();
+        blockingRepository.deleteAll();
+    }
+
+    @Test
+    void shouldGetBookingById() {
+        Long id = bookingRepository.save(createBooking("reactive")).getId();
+
+        ResponseEntity<Booking> response = restTemplate.getForEntity("/api/reactive/bookings/{id}", Booking.class, id);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getName()).isEqualTo("reactive");
+        assertThat(response.getBody().getStartDate()).isEqualTo(parse("2024-01-01 01:00:00"));
+        assertThat(response.getBody().getProperty().getId()).isEqualTo(1L);
+        assertThat(response.getBody().getProperty().getName()).isNotBlank();
+    }
+
+    @Test
+    void shouldStreamBookingsByPropertyAndWindow() {
+        bookingRepository.save(createBooking("first"));
+        var second = createBooking("second");
+        second.setStartDate(parse("2024-01-01 03:00:00"));
+        second.setEndDate(parse("2024-01-01 04:00:00"));
+        bookingRepository.save(second);
+        var later = createBooking("later");
+        later.setStartDate(parse("2024-01-03 03:00:00"));
+        later.setEndDate(parse("2024-01-03 04:00:00"));
+        bookingRepository.save(later);
+
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/api/reactive/bookings?propertyId=1&from={from}&to={to}", String.class,
+                "2024-01-01 00:00:00", "2024-01-02 00:00:00");
+        ResponseEntity<String> otherProperty = restTemplate.getForEntity(
+                "/api/reactive/bookings?propertyId=2", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType().isCompatibleWith(MediaType.APPLICATION_NDJSON)).isTrue();
+        assertThat(response.getBody().lines())
+                .hasSize(2)
+                .satisfiesExactly(
+                        line -> assertThat(line).contains("\"name\":\"first\""),
+                        line -> assertThat(line).contains("\"name\":\"second\""));
+        assertThat(otherProperty.getBody()).isNullOrEmpty();
+    }
+
+    @Test
+    void shouldGetAndStreamBlockings() {
+        Long id = blockingRepository.save(createBlocking("block")).getId();
+
+        ResponseEntity<Blocking> byId = restTemplate.getForEntity("/api/reactive/blockings/{id}", Blocking.class, id);
+        ResponseEntity<String> list = restTemplate.getForEntity("/api/reactive/blockings?propertyId=1", String.class);
+
+        assertThat(byId.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(byId.getBody().getName()).isEqualTo("block");
+        assertThat(list.getBody().lines()).singleElement().asString().contains("\"name\":\"block\"");
+    }
+
+    @Test
+    void shouldReturn404ForNotExistingBooking() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/reactive/bookings/99", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).contains("Booking id: 99 not found");
+    }
+
+    @Test
+    void shouldReturn400ForInvalidIdAndDate() {
+        ResponseEntity<String> invalidId = restTemplate.getForEntity("/api/reactive/blockings/a", String.class);
+        ResponseEntity<String> invalidDate = restTemplate.getForEntity(
+                "/api/reactive/bookings?from={from}", String.class, "2024-01-01");
+
+        assertThat(invalidId.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(invalidId.getBody()).contains("Id must be a number");
+        assertThat(invalidDate.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,118 @@
+package com.davi.demo.booking.service.service;
+
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent;
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent.Action;
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent.Type;
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static com.davi.demo.booking.service.TestData.createBlocking;
+import static com.davi.demo.booking.service.TestData.createBooking;
+import static com.davi.demo.booking.service.common.DateUtil.parse;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BlockingRepository blockingRepository;
+
+    private AvailabilityIndex availabilityIndex;
+
+    @BeforeEach
+    void setup() {
+        availabilityIndex = new AvailabilityIndex(bookingRepository, blockingRepository, true);
+    }
+
+    @Test
+    public void givenDisabledIndex_whenLoad_thenNotActive() {
+        var disabledIndex = new AvailabilityIndex(bookingRepository, blockingRepository, false);
+
+        disabledIndex.load();
+
+        assertThat(disabledIndex.isActive()).isFalse();
+        verifyNoInteractions(bookingRepository, blockingRepository);
+    }
+
+    @Test
+    public void givenSavedBookingsAndBlockings_whenLoad_thenFindOverlaps() {
+        var booking = createBooking("booking");
+        booking.setId(1L);
+        var blocking = createBlocking("blocking");
+        blocking.setId(2L);
+
+        when(bookingRepository.findByIsCanceled(false)).thenReturn(List.of(booking));
+        when(blockingRepository.findAll()).thenReturn(List.of(blocking));
+
+        availabilityIndex.load();
+
+        assertThat(availabilityIndex.isActive()).isTrue();
+        assertThat(availabilityIndex.hasOverlappingBooking(
+                1L, parse("2024-01-01 01:30:00"), parse("2024-01-01 03:00:00"), null)).isTrue();
+        assertThat(availabilityIndex.hasOverlappingBooking(
+                1L, parse("2024-01-01 01:30:00"), parse("2024-01-01 03:00:00"), 1L)).isFalse();
+        assertThat(availabilityIndex.hasOverlappingBooking(
+                1L, parse("2024-01-01 02:00:00"), parse("2024-01-01 03:00:00"), null)).isFalse();
+        assertThat(availabilityIndex.hasOverlappingBooking(
+                2L, parse("2024-01-01 01:30:00"), parse("2024-01-01 03:00:00"), null)).isFalse();
+        assertThat(availabilityIndex.hasOverlappingBlocking(
+                1L, parse("2024-01-01 23:00:00"), parse("2024-01-02 03:00:00"), null)).isTrue();
+    }
+
+    @Test
+    public void givenChangeEvents_whenOnChange_thenKeepIndexUpdated() {
+        when(bookingRepository.findByIsCanceled(false)).thenReturn(emptyList());
+        when(blockingRepository.findAll()).thenReturn(emptyList());
+        availabilityIndex.load();
+
+        availabilityIndex.onChange(bookingEvent(Action.CREATED, "2024-01-01 01:00:00", true));
+        assertThat(availabilityIndex.hasOverlappingBooking(
+                1L, parse("2024-01-01 01:00:00"), parse("2024-01-01 02:00:00"), null)).isTrue();
+
+        availabilityIndex.onChange(bookingEvent(Action.UPDATED, "2024-01-01 05:00:00", true));
+        assertThat(availabilityIndex.hasOverlappingBooking(
+                1L, parse("2024-01-01 01:00:00"), parse("2024-01-01 02:00:00"), null)).isFalse();
+        assertThat(availabilityIndex.hasOverlappingBooking(
+                1L, parse("2024-01-01 05:00:00"), parse("2024-01-01 06:00:00"), null)).isTrue();
+
+        availabilityIndex.onChange(bookingEvent(Action.CANCELED, "2024-01-01 05:00:00", false));
+        assertThat(availabilityIndex.hasOverlappingBooking(
+                1L, parse("2024-01-01 05:00:00"), parse("2024-01-01 06:00:00"), null)).isFalse();
+    }
+
+    @Test
+    public void givenIndexOutOfSync_whenCheckConsistency_thenReportDifferences() {
+        var booking = createBooking("booking");
+        booking.setId(1L);
+
+        when(bookingRepository.findByIsCanceled(false)).thenReturn(emptyList());
+        when(blockingRepository.findAll()).thenReturn(emptyList());
+        availabilityIndex.load();
+        assertThat(availabilityIndex.checkConsistency()).isEmpty();
+
+        when(bookingRepository.findByIsCanceled(false)).thenReturn(List.of(booking));
+        assertThat(availabilityIndex.checkConsistency())
+                .singleElement().asString().startsWith("Booking id: 1 expected");
+
+        availabilityIndex.onChange(bookingEvent(Action.CREATED, "2024-01-01 01:00:00", true));
+        assertThat(availabilityIndex.checkConsistency()).isEmpty();
+    }
+
+    private static AvailabilityChangeEvent bookingEvent(Action action, String startDate, boolean active) {
+        var start = parse(startDate);
+        return new AvailabilityChangeEvent(Type.BOOKING, action, 1L, 1L, start, start.plusHours(1), active);
+    }
+}
@@ -0,0 +1,166 @@
+package com.davi.demo.booking.service.service;
+
+import com.davi.demo.booking.service.common.AvailabilityCheck;
+import com.davi.demo.booking.service.common.AvailabilityResult;
+import com.davi.demo.booking.service.common.TimeSlot;
+import com.davi.demo.booking.service.exception.NotFoundException;
+import com.davi.demo.booking.service.exception.ValidationException;
+import com.davi.demo.booking.service.model.Property;
+import com.davi.demo.booking.service.repository.AvailabilityRepository;
+import com.davi.demo.booking.service.repository.AvailabilityRepository.CheckedPeriod;
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.davi.demo.booking.service.common.DateUtil.parse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BlockingRepository blockingRepository;
+
+    @Mock
+    private AvailabilityRepository availabilityRepository;
+
+    @Mock
+    private PropertyService propertyService;
+
+    @InjectMocks
+    private AvailabilityService availabilityService;
+
+    @Test
+    void givenBookingsAndBlockings_whenFindFreeSlots_thenReturnGapsWithinWindow() {
+        var from = parse("2024-01-01 00:00:00");
+        var to = parse("2024-01-02 00:00:00");
+        when(bookingRepository.streamActiveBookingSlots(1L, from, to)).thenReturn(Stream.of(
+                slot("2023-12-31 22:00:00", "2024-01-01 01:00:00"),
+                slot("2024-01-01 04:00:00", "2024-01-01 06:00:00"),
+                slot("2024-01-01 05:00:00", "2024-01-01 07:00:00")));
+        when(blockingRepository.streamBlockingSlots(1L, from, to)).thenReturn(Stream.of(
+                slot("2024-01-01 02:00:00", "2024-01-01 03:00:00"),
+                slot("2024-01-01 03:00:00", "2024-01-01 04:00:00"),
+                slot("2024-01-01 06:00:00", "2024-01-01 08:00:00")));
+
+        var free = new ArrayList<TimeSlot>();
+        long count = availabilityService.findFreeSlots(1L, from, to, free::add);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(free).containsExactly(
+                slot("2024-01-01 01:00:00", "2024-01-01 02:00:00"),
+                slot("2024-01-01 08:00:00", "2024-01-02 00:00:00"));
+        verifyNoInteractions(propertyService);
+    }
+
+    @Test
+    void givenNothingBooked_whenMergeFreeSlots_thenWholeWindowIsFree() {
+        var free = new ArrayList<TimeSlot>();
+
+        AvailabilityService.mergeFreeSlots(List.<TimeSlot>of().iterator(), List.<TimeSlot>of().iterator(),
+                parse("2024-01-01 00:00:00"), parse("2024-01-02 00:00:00"), free::add);
+
+        assertThat(free).containsExactly(slot("2024-01-01 00:00:00", "2024-01-02 00:00:00"));
+    }
+
+    @Test
+    void givenWindowFullyBlocked_whenMergeFreeSlots_thenNothingIsFree() {
+        var free = new ArrayList<TimeSlot>();
+
+        long count = AvailabilityService.mergeFreeSlots(
+                List.of(slot("2024-01-01 10:00:00", "2024-01-01 12:00:00")).iterator(),
+                List.of(slot("2023-12-31 00:00:00", "2024-01-03 00:00:00")).iterator(),
+                parse("2024-01-01 00:00:00"), parse("2024-01-02 00:00:00"), free::add);
+
+        assertThat(count).isZero();
+        assertThat(free).isEmpty();
+    }
+
+    @Test
+    void givenFromAfterTo_whenValidateWindow_thenThrowValidationException() {
+        when(propertyService.getPropertyById(1L)).thenReturn(new Property());
+
+        ValidationException exception = assertThrows(ValidationException.class, () ->
+                availabilityService.validateWindow(1L, parse("2024-01-02 00:00:00"), parse("2024-01-01 00:00:00")));
+
+        assertThat(exception.getMessage()).isEqualTo("From date must be before to date");
+        verifyNoInteractions(bookingRepository, blockingRepository);
+    }
+
+    @Test
+    void givenNotExistingProperty_whenValidateWindow_thenThrowNotFoundException() {
+        when(propertyService.getPropertyById(99L)).thenThrow(new NotFoundException("Property id: {0,number,#} not found", 99L));
+
+        NotFoundException exception = assertThrows(NotFoundException.class, () ->
+                availabilityService.validateWindow(99L, parse("2024-01-01 00:00:00"), parse("2024-01-02 00:00:00")));
+
+        assertThat(exception.getMessage()).isEqualTo("Property id: 99 not found");
+    }
+
+    @Test
+    void givenValidAndInvalidChecks_whenCheckAvailability_thenAnswerValidWithOneQuery() {
+        var free = check(1L, "2024-01-01 00:00:00", "2024-01-01 01:00:00");
+        var busy = check(2L, "2024-01-01 00:00:00", "2024-01-01 01:00:00");
+        var unknown = check(99L, "2024-01-01 00:00:00", "2024-01-01 01:00:00");
+        var reversed = check(1L, "2024-01-01 01:00:00", "2024-01-01 00:00:00");
+        var noProperty = check(null, "2024-01-01 00:00:00", "2024-01-01 01:00:00");
+        when(availabilityRepository.check(List.of(free, busy, unknown))).thenReturn(List.of(
+                new CheckedPeriod(true, true),
+                new CheckedPeriod(true, false),
+                new CheckedPeriod(false, true)));
+
+        var results = availabilityService.checkAvailability(Arrays.asList(free, reversed, busy, noProperty, unknown, null));
+
+        assertThat(results).containsExactly(
+                AvailabilityResult.of(0, true),
+                new AvailabilityResult(1, null, 400, "From date must be before to date"),
+                AvailabilityResult.of(2, false),
+                new AvailabilityResult(3, null, 400, "Property Id is required"),
+                new AvailabilityResult(4, null, 404, "Property id: 99 not found"),
+                new AvailabilityResult(5, null, 400, "Property Id is required"));
+    }
+
+    @Test
+    void givenOnlyInvalidChecks_whenCheckAvailability_thenNoQuery() {
+        var results = availabilityService.checkAvailability(List.of(new AvailabilityCheck(1L, null, null)));
+
+        assertThat(results).containsExactly(new AvailabilityResult(0, null, 400, "startDate and endDate are mandatory"));
+        verifyNoInteractions(availabilityRepository);
+    }
+
+    @Test
+    void givenTooManyChecks_whenCheckAvailability_thenThrowValidationException() {
+        var checks = Collections.nCopies(AvailabilityService.MAX_CHECKS + 1,
+                check(1L, "2024-01-01 00:00:00", "2024-01-01 01:00:00"));
+
+        ValidationException exception = assertThrows(ValidationException.class, () ->
+                availabilityService.checkAvailability(checks));
+
+        assertThat(exception.getMessage()).isEqualTo("Batch must have between 1 and 1000 checks");
+        verifyNoInteractions(availabilityRepository);
+    }
+
+    private static AvailabilityCheck check(Long propertyId, String startDate, String endDate) {
+        return new AvailabilityCheck(propertyId, parse(startDate), parse(endDate));
+    }
+
+    private static TimeSlot slot(String startDate, String endDate) {
+        return new TimeSlot(parse(startDate), parse(endDate));
+    }
+}
@@ -1,12 +1,21 @@
 package com.davi.demo.booking.service.service;
 
+import com.davi.demo.booking.service.common.BlockingView;
+import com.davi.demo.booking.service.common.BookingPeriod;
+import com.davi.demo.booking.service.common.Cursor;
+import com.davi.demo.booking.service.common.ListFilter;
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent;
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent.Action;
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent.Type;
 import com.davi.demo.booking.service.exception.BadRequestException;
+import com.davi.demo.booking.service.exception.ConflictException;
 import com.davi.demo.booking.service.exception.NotFoundException;
+import com.davi.demo.booking.service.exception.PreconditionFailedException;
 import com.davi.demo.booking.service.exception.ValidationException;
 import com.davi.demo.booking.service.model.Blocking;
-import com.davi.demo.booking.service.model.Booking;
 import com.davi.demo.booking.service.repository.BlockingRepository;
 import com.davi.demo.booking.service.repository.BookingRepository;
+import com.davi.demo.booking.service.repository.ViewRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -14,21 +23,30 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static com.davi.demo.booking.service.TestData.createBlocking;
+import static com.davi.demo.booking.service.TestData.toView;
+import static com.davi.demo.booking.service.common.DateUtil.parse;
 import static java.util.Collections.emptyList;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,6 +61,18 @@ class BlockingServiceTest {
     @Mock
     private PropertyService propertyService;
 
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ViewRepository viewRepository;
+
+    @Mock
+    private BookingMetrics bookingMetrics;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BlockingService blockingService;
 
@@ -54,13 +84,14 @@ class BlockingServiceTest {
         Long id = 1L;
         var blocking = createBlocking("test");
         blocking.setId(id);
+        var view = toView(blocking);
 
-        when(blockingRepository.findById(id))
-                .thenReturn(Optional.of(blocking));
+        when(blockingRepository.findViewById(id))
+                .thenReturn(Optional.of(view));
 
-        Blocking resultBlocking = blockingService.getBlockingById(id);
+        BlockingView resultBlocking = blockingService.getBlockingById(id);
 
-        assertThat(resultBlocking).isEqualTo(blocking);
+        assertThat(resultBlocking).isEqualTo(view);
     }
 
     @Test
@@ -75,7 +106,7 @@ class BlockingServiceTest {
 
     @Test
     public void givenNotExistingId_whenGetBlockingById_thenThrowNotFoundException() {
-        when(blockingRepository.findById(anyLong()))
+        when(blockingRepository.findViewById(anyLong()))
                 .thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(NotFoundException.class, () -> {
@@ -86,6 +117,51 @@ class BlockingServiceTest {
         assertThat(exception.getMessage()).isEqualTo("Blocking id: 99 not found");
     }
 
+    // LIST TESTS
+
+    @Test
+    public void givenMoreRowsThanSize_whenGetBlockings_thenReturnPageWithNextCursor() {
+        var blocking1 = createBlocking("first");
+        blocking1.setId(1L);
+        var blocking2 = createBlocking("second");
+        blocking2.setId(2L);
+
+        when(viewRepository.findBlockings(any(Specification.class), eq(2)))
+                .thenReturn(List.of(toView(blocking1), toView(blocking2)));
+
+        var page = blockingService.getBlockings(
+                ListFilter.of(1L, "2024-01-01 00:00:00", "2024-02-01 00:00:00", null), null, 1);
+
+        assertThat(page.items()).isEqualTo(List.of(toView(blocking1)));
+        assertThat(Cursor.decode(page.nextCursor()))
+                .isEqualTo(new Cursor(blocking1.getStartDate(), 1L));
+    }
+
+    @Test
+    public void givenInvalidDateFilter_whenBuildListFilter_thenThrowValidationException() {
+        ValidationException exception = assertThrows(ValidationException.class, () -> {
+            ListFilter.of(null, "2024-01-01", null, null);
+        });
+
+        assertThat(exception.getMessage())
+                .isEqualTo("Invalid date format, correct format is yyyy-MM-dd HH:mm:ss");
+    }
+
+    @Test
+    public void givenMatchingRows_whenExportBlockings_thenStreamEveryRowToConsumer() {
+        var blocking1 = toView(createBlocking("first"));
+        var blocking2 = toView(createBlocking("second"));
+
+        when(blockingRepository.streamBlockings(1L, null, null))
+                .thenReturn(Stream.of(blocking1, blocking2));
+
+        var exported = new ArrayList<BlockingView>();
+        long count = blockingService.exportBlockings(ListFilter.of(1L, null, null, null), exported::add);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(exported).isEqualTo(List.of(blocking1, blocking2));
+    }
+
     // DELETE TESTS
 
     @Test
@@ -114,21 +190,103 @@ class BlockingServiceTest {
         assertThat(exception.getMessage()).isEqualTo("Blocking id: 99 not found");
     }
 
+    @Test
+    public void givenStaleVersion_whenDeleteBlocking_thenThrowPreconditionFailedException() {
+        Long id = 1L;
+        var blocking = createBlocking("test");
+        blocking.setId(id);
+        blocking.setVersion(2L);
+
+        when(blockingRepository.findById(id))
+                .thenReturn(Optional.of(blocking));
+
+        PreconditionFailedException exception = assertThrows(PreconditionFailedException.class, () -> {
+            blockingService.deleteBlocking(id, Set.of(1L));
+        });
+
+        assertThat(exception.getStatus()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(exception.getMessage()).isEqualTo("Blocking id: 1 was modified, current version is 2");
+    }
+
+    @Test
+    public void givenStaleVersion_whenUpdateBlocking_thenThrowPreconditionFailedException() {
+        Long id = 1L;
+        var existingBlocking = createBlocking("existing blocking");
+        existingBlocking.setId(id);
+        existingBlocking.setVersion(3L);
+
+        when(blockingRepository.findById(id))
+                .thenReturn(Optional.of(existingBlocking));
+
+        assertThrows(PreconditionFailedException.class, () -> {
+            blockingService.updateBlocking(id, createBlocking("test"), Set.of(2L), new UpdateBase());
+        });
+
+        assertThat(existingBlocking.getName()).isEqualTo("existing blocking");
+        verifyNoInteractions(bookingRepository);
+    }
+
     // CREATE TESTS
 
+    @Test
+    public void givenStaleRequestVersion_whenUpdateBlocking_thenThrowConflictException() {
+        Long id = 1L;
+        var existingBlocking = createBlocking("existing blocking");
+        existingBlocking.setId(id);
+        existingBlocking.setVersion(3L);
+        var updatedBlocking = createBlocking("test");
+        updatedBlocking.setVersion(2L);
+
+        when(blockingRepository.findById(id))
+                .thenReturn(Optional.of(existingBlocking));
+
+        ConflictException exception = assertThrows(ConflictException.class, () -> {
+            blockingService.updateBlocking(id, updatedBlocking);
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Blocking id: 1 was modified, current version is 3");
+        assertThat(existingBlocking.getName()).isEqualTo("existing blocking");
+    }
+
+    @Test
+    public void givenConcurrentChangeOfSameField_whenRetryUpdateBlocking_thenThrowConflictException() {
+        Long id = 1L;
+        var base = new UpdateBase();
+        var updatedBlocking = createBlocking("test");
+        var concurrentBlocking = createBlocking("concurrent");
+        concurrentBlocking.setId(id);
+
+        when(blockingRepository.findById(id))
+                .thenReturn(Optional.of(createBlocking("existing blocking")))
+                .thenReturn(Optional.of(concurrentBlocking));
+        when(propertyService.lockPropertyById(updatedBlocking.getProperty().getId()))
+                .thenReturn(updatedBlocking.getProperty());
+        when(blockingRepository.findBlockingsByPropertyAndBlockingTimeRange(
+                eq(updatedBlocking.getProperty()), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(emptyList());
+
+        blockingService.updateBlocking(id, updatedBlocking, null, base);
+        ConflictException exception = assertThrows(ConflictException.class, () -> {
+            blockingService.updateBlocking(id, updatedBlocking, null, base);
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Blocking id: 1 was modified concurrently, reload it and try again");
+        assertThat(concurrentBlocking.getName()).isEqualTo("concurrent");
+    }
+
     @Test
     public void givenValidBlocking_whenCreateBlocking_thenCreate() {
         var blocking = createBlocking("test");
 
-        when(propertyService.getPropertyById(blocking.getProperty().getId()))
+        when(propertyService.lockPropertyById(blocking.getProperty().getId()))
                 .thenReturn(blocking.getProperty());
 
         when(blockingRepository.findBlockingsByPropertyAndBlockingTimeRange(
-                eq(blocking.getProperty()), anyString(), anyString()))
+                eq(blocking.getProperty()), any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(emptyList());
 
-        when(bookingRepository.findBookingsByPropertyAndBookingTimeRangeAndStatus(
-                eq(blocking.getProperty()), anyString(), anyString(), anyBoolean()))
+        when(bookingRepository.findActiveBookingPeriods(
+                eq(blocking.getProperty().getId()), any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(emptyList());
 
         when(blockingRepository.save(saveBlockingCaptor.capture()))
@@ -143,29 +301,37 @@ class BlockingServiceTest {
     public void givenExistingBookingsWithinPeriod_whenCreateBlocking_thenCreateAndCancelBookings() {
         var blocking = createBlocking("test");
 
-        Booking booking1 = mock(Booking.class);
-        Booking booking2 = mock(Booking.class);
+        var booking1 = new BookingPeriod(10L, parse("2024-01-01 01:00:00"), parse("2024-01-01 02:00:00"));
+        var booking2 = new BookingPeriod(11L, parse("2024-01-01 03:00:00"), parse("2024-01-01 04:00:00"));
 
-        when(propertyService.getPropertyById(blocking.getProperty().getId()))
+        when(propertyService.lockPropertyById(blocking.getProperty().getId()))
                 .thenReturn(blocking.getProperty());
 
         when(blockingRepository.findBlockingsByPropertyAndBlockingTimeRange(
-                eq(blocking.getProperty()), anyString(), anyString()))
+                eq(blocking.getProperty()), any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(emptyList());
 
-        when(bookingRepository.findBookingsByPropertyAndBookingTimeRangeAndStatus(
-                eq(blocking.getProperty()), anyString(), anyString(), anyBoolean()))
+        when(bookingRepository.findActiveBookingPeriods(
+                eq(blocking.getProperty().getId()), any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(List.of(booking1, booking2));
 
+        when(bookingRepository.cancelActiveBookings(
+                blocking.getProperty().getId(), blocking.getStartDate(), blocking.getEndDate()))
+                .thenReturn(2);
+
         when(blockingRepository.save(saveBlockingCaptor.capture()))
                 .thenReturn(blocking);
 
-        blockingService.createBlocking(blocking);
+        var result = blockingService.createBlocking(blocking);
 
         assertThat(saveBlockingCaptor.getValue()).isEqualTo(blocking);
+        assertThat(result.canceledBookings()).isEqualTo(2);
 
-        verify(booking1).setIsCanceled(true);
-        verify(booking2).setIsCanceled(true);
+        verify(eventPublisher).publishEvent(new AvailabilityChangeEvent(Type.BOOKING, Action.CANCELED,
+                10L, 1L, booking1.startDate(), booking1.endDate(), false));
+        verify(eventPublisher).publishEvent(new AvailabilityChangeEvent(Type.BOOKING, Action.CANCELED,
+                11L, 1L, booking2.startDate(), booking2.endDate(), false));
+        verify(bookingMetrics).bookingsAutoCanceled(2);
     }
 
     @Test
@@ -176,11 +342,11 @@ class BlockingServiceTest {
 
         var blocking = createBlocking("test");
 
-        when(propertyService.getPropertyById(blocking.getProperty().getId()))
+        when(propertyService.lockPropertyById(blocking.getProperty().getId()))
                 .thenReturn(blocking.getProperty());
 
         when(blockingRepository.findBlockingsByPropertyAndBlockingTimeRange(
-                eq(blocking.getProperty()), anyString(), anyString()))
+                eq(blocking.getProperty()), any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(List.of(existingBlocking));
 
         BadRequestException exception = assertThrows(BadRequestException.class, () -> {
@@ -189,15 +355,36 @@ class BlockingServiceTest {
 
         assertThat(exception.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
         assertThat(exception.getMessage()).isEqualTo("Property is already blocked for this period");
+        verify(bookingMetrics).conflictRejected(BookingMetrics.BLOCKING, BookingMetrics.BLOCKED);
+    }
+
+    @Test
+    public void givenActiveIndexWithOverlappingBlocking_whenCreateBlocking_thenThrowBadRequestException() {
+        var blocking = createBlocking("test");
+
+        when(propertyService.lockPropertyById(blocking.getProperty().getId()))
+                .thenReturn(blocking.getProperty());
+
+        when(availabilityIndex.isActive()).thenReturn(true);
+        when(availabilityIndex.hasOverlappingBlocking(
+                blocking.getProperty().getId(), blocking.getStartDate(), blocking.getEndDate(), null))
+                .thenReturn(true);
+
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> {
+            blockingService.createBlocking(blocking);
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Property is already blocked for this period");
+        verifyNoInteractions(blockingRepository);
     }
 
     @Test
     public void givenInvalidStartEndDate_whenCreateBlocking_thenThrowValidationException() {
         var blocking = createBlocking("test");
-        blocking.setStartDate("2024-01-02 12:00:00");
-        blocking.setEndDate("2024-01-02 01:00:00");
+        blocking.setStartDate(parse("2024-01-02 12:00:00"));
+        blocking.setEndDate(parse("2024-01-02 01:00:00"));
 
-        when(propertyService.getPropertyById(blocking.getProperty().getId()))
+        when(propertyService.lockPropertyById(blocking.getProperty().getId()))
                 .thenReturn(blocking.getProperty());
 
         ValidationException exception = assertThrows(ValidationException.class, () -> {
@@ -214,56 +401,62 @@ class BlockingServiceTest {
     public void givenValidId_whenUpdateBlocking_thenUpdate() {
         Long id = 1L;
         var updatedBlocking = createBlocking("test");
-        var existingBlocking = mock(Blocking.class);
+        updatedBlocking.setEndDate(parse("2024-01-03 00:00:00"));
+        var existingBlocking = createBlocking("existing blocking");
+        existingBlocking.setId(id);
 
         when(blockingRepository.findById(id))
                 .thenReturn(Optional.of(existingBlocking));
 
-        when(propertyService.getPropertyById(updatedBlocking.getProperty().getId()))
+        when(propertyService.lockPropertyById(updatedBlocking.getProperty().getId()))
                 .thenReturn(updatedBlocking.getProperty());
 
         when(blockingRepository.findBlockingsByPropertyAndBlockingTimeRange(
-                eq(updatedBlocking.getProperty()), anyString(), anyString()))
+                eq(updatedBlocking.getProperty()), any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(emptyList());
 
-        when(bookingRepository.findBookingsByPropertyAndBookingTimeRangeAndStatus(
-                eq(updatedBlocking.getProperty()), anyString(), anyString(), anyBoolean()))
+        when(bookingRepository.findActiveBookingPeriods(
+                eq(updatedBlocking.getProperty().getId()), any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(emptyList());
 
         blockingService.updateBlocking(id, updatedBlocking);
 
-        verify(existingBlocking).setName(updatedBlocking.getName());
-        verify(existingBlocking).setStartDate(updatedBlocking.getStartDate());
-        verify(existingBlocking).setEndDate(updatedBlocking.getEndDate());
-        verify(existingBlocking).setProperty(updatedBlocking.getProperty());
+        assertThat(existingBlocking.getName()).isEqualTo(updatedBlocking.getName());
+        assertThat(existingBlocking.getStartDate()).isEqualTo(updatedBlocking.getStartDate());
+        assertThat(existingBlocking.getEndDate()).isEqualTo(updatedBlocking.getEndDate());
+        assertThat(existingBlocking.getProperty()).isEqualTo(updatedBlocking.getProperty());
     }
 
     @Test
     public void givenExistingBookingsWithinPeriod_whenUpdateBlocking_thenUpdateAndCancelBookings() {
         Long id = 1L;
         var updatedBlocking = createBlocking("test");
-        var existingBlocking = mock(Blocking.class);
-        var booking1 = mock(Booking.class);
-        var booking2 = mock(Booking.class);
+        var existingBlocking = createBlocking("existing blocking");
+        var booking1 = new BookingPeriod(10L, parse("2024-01-01 01:00:00"), parse("2024-01-01 02:00:00"));
+        var booking2 = new BookingPeriod(11L, parse("2024-01-01 03:00:00"), parse("2024-01-01 04:00:00"));
 
         when(blockingRepository.findById(id))
                 .thenReturn(Optional.of(existingBlocking));
 
-        when(propertyService.getPropertyById(updatedBlocking.getProperty().getId()))
+        when(propertyService.lockPropertyById(updatedBlocking.getProperty().getId()))
                 .thenReturn(updatedBlocking.getProperty());
 
         when(blockingRepository.findBlockingsByPropertyAndBlockingTimeRange(
-                eq(updatedBlocking.getProperty()), anyString(), anyString()))
+                eq(updatedBlocking.getProperty()), any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(emptyList());
 
-        when(bookingRepository.findBookingsByPropertyAndBookingTimeRangeAndStatus(
-                eq(updatedBlocking.getProperty()), anyString(), anyString(), anyBoolean()))
+        when(bookingRepository.findActiveBookingPeriods(
+                eq(updatedBlocking.getProperty().getId()), any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(List.of(booking1, booking2));
 
-        blockingService.updateBlocking(id, updatedBlocking);
+        when(bookingRepository.cancelActiveBookings(
+                updatedBlocking.getProperty().getId(), updatedBlocking.getStartDate(), updatedBlocking.getEndDate()))
+                .thenReturn(2);
+
+        var result = blockingService.updateBlocking(id, updatedBlocking);
 
-        verify(booking1).setIsCanceled(true);
-        verify(booking2).setIsCanceled(true);
+        assertThat(result.canceledBookings()).isEqualTo(2);
+        verify(eventPublisher, times(2)).publishEvent(any(AvailabilityChangeEvent.class));
     }
 
     @Test
@@ -278,11 +471,11 @@ class BlockingServiceTest {
         when(blockingRepository.findById(id))
                 .thenReturn(Optional.of(blocking));
 
-        when(propertyService.getPropertyById(blocking.getProperty().getId()))
+        when(propertyService.lockPropertyById(blocking.getProperty().getId()))
                 .thenReturn(blocking.getProperty());
 
         when(blockingRepository.findBlockingsByPropertyAndBlockingTimeRange(
-                eq(blocking.getProperty()), anyString(), anyString()))
+                eq(blocking.getProperty()), any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(List.of(existingBlocking));
 
         BadRequestException exception = assertThrows(BadRequestException.class, () -> {
@@ -297,13 +490,13 @@ class BlockingServiceTest {
     public void givenInvalidStartEndDate_whenUpdateBlocking_thenThrowValidationException() {
         Long id = 1L;
         var blocking = createBlocking("test");
-        blocking.setStartDate("2024-01-02 12:00:00");
-        blocking.setEndDate("2024-01-02 01:00:00");
+        blocking.setStartDate(parse("2024-01-02 12:00:00"));
+        blocking.setEndDate(parse("2024-01-02 01:00:00"));
 
         when(blockingRepository.findById(id))
                 .thenReturn(Optional.of(blocking));
 
-        when(propertyService.getPropertyById(blocking.getProperty().getId()))
+        when(propertyService.lockPropertyById(blocking.getProperty().getId()))
                 .thenReturn(blocking.getProperty());
 
         ValidationException exception = assertThrows(ValidationException.class, () -> {
@@ -0,0 +1,151 @@
+package com.davi.demo.booking.service.service;
+
+import com.davi.demo.booking.service.common.BatchItemResult;
+import com.davi.demo.booking.service.exception.BadRequestException;
+import com.davi.demo.booking.service.exception.NotFoundException;
+import com.davi.demo.booking.service.exception.ValidationException;
+import com.davi.demo.booking.service.model.Booking;
+import com.davi.demo.booking.service.model.Property;
+import com.davi.demo.booking.service.repository.BlockingRepository;
+import com.davi.demo.booking.service.repository.BookingRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.davi.demo.booking.service.TestData.createBlocking;
+import static com.davi.demo.booking.service.TestData.createBooking;
+import static com.davi.demo.booking.service.common.DateUtil.parse;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingBatchServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BlockingRepository blockingRepository;
+
+    @Mock
+    private PropertyService propertyService;
+
+    @Mock
+    private BookingMetrics bookingMetrics;
+
+    @Captor
+    private ArgumentCaptor<List<Booking>> saveAllCaptor;
+
+    private BookingBatchService bookingBatchService;
+
+    @BeforeEach
+    void setup() {
+        var validator = Validation.buildDefaultValidatorFactory().getValidator();
+        bookingBatchService = new BookingBatchService(
+                bookingRepository, blockingRepository, propertyService, validator, bookingMetrics);
+    }
+
+    @Test
+    public void givenMixedBatch_whenCreateBookings_thenReturnResultPerItem() {
+        var property = new Property();
+        property.setId(1L);
+
+        var valid = createBooking("valid");
+        var sameTimeInBatch = createBooking("same time");
+        var existingConflict = createBooking("existing");
+        existingConflict.setStartDate(parse("2024-01-02 01:00:00"));
+        existingConflict.setEndDate(parse("2024-01-02 02:00:00"));
+        var blockedConflict = createBooking("blocked");
+        blockedConflict.setStartDate(parse("2024-01-03 01:00:00"));
+        blockedConflict.setEndDate(parse("2024-01-03 02:00:00"));
+        var missingProperty = createBooking("missing");
+        missingProperty.setProperty(new Property());
+        missingProperty.getProperty().setId(99L);
+        var invalidDates = createBooking("invalid");
+        invalidDates.setEndDate(invalidDates.getStartDate());
+        var noName = createBooking("test");
+        noName.setName(null);
+
+        var savedBooking = createBooking("saved");
+        savedBooking.setId(10L);
+        savedBooking.setStartDate(parse("2024-01-02 00:30:00"));
+        savedBooking.setEndDate(parse("2024-01-02 01:30:00"));
+        var savedBlocking = createBlocking("saved");
+        savedBlocking.setId(20L);
+        savedBlocking.setStartDate(parse("2024-01-03 00:00:00"));
+        savedBlocking.setEndDate(parse("2024-01-04 00:00:00"));
+
+        when(propertyService.lockPropertiesByIds(Set.of(1L, 99L)))
+                .thenReturn(Map.of(1L, property));
+        when(bookingRepository.findActiveBookingsByPropertiesAndTimeRange(
+                eq(Set.of(1L)), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(savedBooking));
+        when(blockingRepository.findBlockingsByPropertiesAndTimeRange(
+                eq(Set.of(1L)), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(savedBlocking));
+        when(bookingRepository.saveAll(saveAllCaptor.capture()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        var results = bookingBatchService.createBookings(new ArrayList<>(List.of(
+                valid, sameTimeInBatch, existingConflict, blockedConflict, missingProperty, invalidDates, noName)));
+
+        assertThat(results).extracting(BatchItemResult::status)
+                .containsExactly(201, 400, 400, 400, 404, 400, 400);
+        assertThat(results).extracting(BatchItemResult::error).containsExactly(
+                null,
+                "Property is already booked for this period",
+                "Property is already booked for this period",
+                "Property is blocked for this period",
+                "Property id: 99 not found",
+                "Booking endDate must be after startDate",
+                "name is mandatory");
+        assertThat(saveAllCaptor.getValue()).containsExactly(valid);
+        verify(bookingMetrics, times(2)).conflictRejected(BookingMetrics.BOOKING, BookingMetrics.BOOKED);
+        verify(bookingMetrics).conflictRejected(BookingMetrics.BOOKING, BookingMetrics.BLOCKED);
+        verify(bookingMetrics, times(2)).validationFailed(ValidationException.class);
+        verify(bookingMetrics, times(3)).validationFailed(BadRequestException.class);
+        verify(bookingMetrics).validationFailed(NotFoundException.class);
+        assertThat(valid.getProperty()).isSameAs(property);
+    }
+
+    @Test
+    public void givenOnlyInvalidItems_whenCreateBookings_thenDoNotQuery() {
+        var canceled = createBooking("canceled");
+        canceled.setIsCanceled(true);
+
+        when(bookingRepository.saveAll(emptyList())).thenReturn(emptyList());
+
+        var results = bookingBatchService.createBookings(List.of(canceled));
+
+        assertThat(results).singleElement()
+                .isEqualTo(new BatchItemResult(0, 400, null, "Cannot create a canceled booking"));
+        verifyNoInteractions(propertyService, blockingRepository);
+    }
+
+    @Test
+    public void givenEmptyBatch_whenCreateBookings_thenThrowValidationException() {
+        ValidationException exception = assertThrows(ValidationException.class, () -> {
+            bookingBatchService.createBookings(emptyList());
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Batch must have between 1 and 1000 bookings");
+    }
+}
@@ -1,11 +1,17 @@
 package com.davi.demo.booking.service.service;
 
+import com.davi.demo.booking.service.common.BookingView;
+import com.davi.demo.booking.service.common.Cursor;
+import com.davi.demo.booking.service.common.ListFilter;
 import com.davi.demo.booking.service.exception.BadRequestException;
+import com.davi.demo.booking.service.exception.ConflictException;
 import com.davi.demo.booking.service.exception.NotFoundException;
+import com.davi.demo.booking.service.exception.PreconditionFailedException;
 import com.davi.demo.booking.service.exception.ValidationException;
 import com.davi.demo.booking.service.model.Booking;
 import com.davi.demo.booking.service.repository.BlockingRepository;
 import com.davi.demo.booking.service.repository.BookingRepository;
+import com.davi.demo.booking.service.repository.ViewRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -13,19 +19,31 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static com.davi.demo.booking.service.TestData.createBlocking;
 import static com.davi.demo.booking.service.TestData.createBooking;
+import static com.davi.demo.booking.service.TestData.toView;
+import static com.davi.demo.booking.service.common.DateUtil.parse;
 import static java.util.Collections.emptyList;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +58,15 @@ class BookingServiceTest {
     @Mock
     private PropertyService propertyService;
 
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ViewRepository viewRepository;
+
+    @Mock
+    private BookingMetrics bookingMetrics;
+
     @InjectMocks
     private BookingService bookingService;
 
@@ -51,13 +78,14 @@ class BookingServiceTest {
         Long id = 1L;
         var booking = createBooking("test");
         booking.setId(id);
+        var view = toView(booking);
 
-        when(bookingRepository.findById(id))
-                .thenReturn(Optional.of(booking));
+        when(bookingRepository.findViewById(id))
+                .thenReturn(Optional.of(view));
 
         var resultBooking = bookingService.getBookingById(id);
 
-        assertThat(resultBooking).isEqualTo(booking);
+        assertThat(resultBooking).isEqualTo(view);
     }
 
     @Test
@@ -72,7 +100,7 @@ class BookingServiceTest {
 
     @Test
     public void givenNotExistingId_whenGetBookingById_thenThrowNotFoundException() {
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findViewById(anyLong()))
                 .thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(NotFoundException.class, () -> {
@@ -83,6 +111,75 @@ class BookingServiceTest {
         assertThat(exception.getMessage()).isEqualTo("Booking id: 99 not found");
     }
 
+    // LIST TESTS
+
+    @Test
+    public void givenMoreRowsThanSize_whenGetBookings_thenReturnPageWithNextCursor() {
+        var booking1 = createBooking("first");
+        booking1.setId(1L);
+        var booking2 = createBooking("second");
+        booking2.setId(2L);
+        var booking3 = createBooking("third");
+        booking3.setId(3L);
+
+        when(viewRepository.findBookings(any(Specification.class), eq(3)))
+                .thenReturn(List.of(toView(booking1), toView(booking2), toView(booking3)));
+
+        var page = bookingService.getBookings(ListFilter.of(1L, null, null, false), null, 2);
+
+        assertThat(page.items()).isEqualTo(List.of(toView(booking1), toView(booking2)));
+        assertThat(Cursor.decode(page.nextCursor()))
+                .isEqualTo(new Cursor(booking2.getStartDate(), 2L));
+    }
+
+    @Test
+    public void givenLastPage_whenGetBookings_thenReturnPageWithoutNextCursor() {
+        var booking = createBooking("test");
+        booking.setId(1L);
+        var cursor = new Cursor(parse("2024-01-01 00:00:00"), 0L).encode();
+
+        when(viewRepository.findBookings(any(Specification.class), eq(3)))
+                .thenReturn(List.of(toView(booking)));
+
+        var page = bookingService.getBookings(ListFilter.of(null, null, null, null), cursor, 2);
+
+        assertThat(page.items()).isEqualTo(List.of(toView(booking)));
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    public void givenInvalidSize_whenGetBookings_thenThrowValidationException() {
+        ValidationException exception = assertThrows(ValidationException.class, () -> {
+            bookingService.getBookings(ListFilter.of(null, null, null, null), null, 501);
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("size must be between 1 and 500");
+    }
+
+    @Test
+    public void givenInvalidCursor_whenGetBookings_thenThrowBadRequestException() {
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> {
+            bookingService.getBookings(ListFilter.of(null, null, null, null), "not a cursor", 10);
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Invalid cursor");
+    }
+
+    @Test
+    public void givenMatchingRows_whenExportBookings_thenStreamEveryRowToConsumer() {
+        var booking1 = toView(createBooking("first"));
+        var booking2 = toView(createBooking("second"));
+
+        when(bookingRepository.streamBookings(1L, null, null, null))
+                .thenReturn(Stream.of(booking1, booking2));
+
+        var exported = new ArrayList<BookingView>();
+        long count = bookingService.exportBookings(ListFilter.of(1L, null, null, null), exported::add);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(exported).isEqualTo(List.of(booking1, booking2));
+    }
+
     // DELETE TESTS
 
     @Test
@@ -111,13 +208,40 @@ class BookingServiceTest {
         assertThat(exception.getMessage()).isEqualTo("Booking id: 99 not found");
     }
 
+    @Test
+    public void givenStaleVersion_whenDeleteBooking_thenThrowPreconditionFailedException() {
+        Long id = 1L;
+        var booking = createBooking("test");
+        booking.setId(id);
+        booking.setVersion(2L);
+
+        when(bookingRepository.findById(id))
+                .thenReturn(Optional.of(booking));
+
+        PreconditionFailedException exception = assertThrows(PreconditionFailedException.class, () -> {
+            bookingService.deleteBooking(id, Set.of(1L));
+        });
+
+        assertThat(exception.getStatus()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(exception.getMessage()).isEqualTo("Booking id: 1 was modified, current version is 2");
+        verify(bookingRepository, never()).deleteById(id);
+    }
+
+    @Test
+    public void givenNotExistingId_whenGetBookingVersion_thenThrowNotFoundException() {
+        when(bookingRepository.findVersionById(99L))
+                .thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> bookingService.getBookingVersion(99L));
+    }
+
     // CREATE TESTS
 
     @Test
     public void givenValidBooking_whenCreateBooking_thenCreate() {
         var booking = createBooking("test");
 
-        when(propertyService.getPropertyById(booking.getProperty().getId()))
+        when(propertyService.lockPropertyById(booking.getProperty().getId()))
                 .thenReturn(booking.getProperty());
 
         when(bookingRepository.findBookingsByPropertyAndBookingTimeRangeAndStatus(
@@ -155,7 +279,7 @@ class BookingServiceTest {
         var existingBooking = createBooking("existing booking");
         existingBooking.setId(2L);
 
-        when(propertyService.getPropertyById(booking.getProperty().getId()))
+        when(propertyService.lockPropertyById(booking.getProperty().getId()))
                 .thenReturn(booking.getProperty());
 
         when(bookingRepository.findBookingsByPropertyAndBookingTimeRangeAndStatus(
@@ -168,6 +292,7 @@ class BookingServiceTest {
 
         assertThat(exception.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
         assertThat(exception.getMessage()).isEqualTo("Property is already booked for this period");
+        verify(bookingMetrics).conflictRejected(BookingMetrics.BOOKING, BookingMetrics.BOOKED);
     }
 
     @Test
@@ -175,7 +300,7 @@ class BookingServiceTest {
         var booking = createBooking("test");
         var blocking = createBlocking("block");
 
-        when(propertyService.getPropertyById(booking.getProperty().getId()))
+        when(propertyService.lockPropertyById(booking.getProperty().getId()))
                 .thenReturn(booking.getProperty());
 
         when(bookingRepository.findBookingsByPropertyAndBookingTimeRangeAndStatus(
@@ -194,13 +319,53 @@ class BookingServiceTest {
         assertThat(exception.getMessage()).isEqualTo("Property is blocked for this period");
     }
 
+    @Test
+    public void givenActiveIndexWithOverlappingBooking_whenCreateBooking_thenThrowBadRequestException() {
+        var booking = createBooking("test");
+
+        when(propertyService.lockPropertyById(booking.getProperty().getId()))
+                .thenReturn(booking.getProperty());
+
+        when(availabilityIndex.isActive()).thenReturn(true);
+        when(availabilityIndex.hasOverlappingBooking(
+                booking.getProperty().getId(), booking.getStartDate(), booking.getEndDate(), null))
+                .thenReturn(true);
+
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> {
+            bookingService.createBooking(booking);
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Property is already booked for this period");
+        verifyNoInteractions(bookingRepository, blockingRepository);
+    }
+
+    @Test
+    public void givenActiveIndexWithoutOverlap_whenCreateBooking_thenCreateWithoutQueries() {
+        var booking = createBooking("test");
+
+        when(propertyService.lockPropertyById(booking.getProperty().getId()))
+                .thenReturn(booking.getProperty());
+
+        when(availabilityIndex.isActive()).thenReturn(true);
+
+        when(bookingRepository.save(saveBookingCaptor.capture()))
+                .thenReturn(booking);
+
+        bookingService.createBooking(booking);
+
+        assertThat(saveBookingCaptor.getValue()).isEqualTo(booking);
+        verify(bookingRepository, never()).findBookingsByPropertyAndBookingTimeRangeAndStatus(
+                any(), any(LocalDateTime.class), any(LocalDateTime.class), anyBoolean());
+        verifyNoInteractions(blockingRepository);
+    }
+
     @Test
     public void givenInvalidStartEndDate_whenCreateBooking_thenThrowValidationException() {
         var booking = createBooking("test");
-        booking.setStartDate("2024-01-02 12:00:00");
-        booking.setEndDate("2024-01-02 01:00:00");
+        booking.setStartDate(parse("2024-01-02 12:00:00"));
+        booking.setEndDate(parse("2024-01-02 01:00:00"));
 
-        when(propertyService.getPropertyById(booking.getProperty().getId()))
+        when(propertyService.lockPropertyById(booking.getProperty().getId()))
                 .thenReturn(booking.getProperty());
 
         ValidationException exception = assertThrows(ValidationException.class, () -> {
@@ -217,8 +382,11 @@ class BookingServiceTest {
     public void givenValidId_whenUpdateBooking_thenUpdate() {
         Long id = 1L;
         var updatedBooking = createBooking("test");
+        updatedBooking.setDescription("new description");
+        updatedBooking.setEndDate(parse("2024-01-01 03:00:00"));
 
-        var existingBooking = mock(Booking.class);
+        var existingBooking = createBooking("existing booking");
+        existingBooking.setId(id);
 
         when(bookingRepository.findById(id))
                 .thenReturn(Optional.of(existingBooking));
@@ -228,7 +396,7 @@ class BookingServiceTest {
                 updatedBooking.getEndDate(), false))
                 .thenReturn(emptyList());
 
-        when(propertyService.getPropertyById(updatedBooking.getProperty().getId()))
+        when(propertyService.lockPropertyById(updatedBooking.getProperty().getId()))
                 .thenReturn(updatedBooking.getProperty());
 
         when(blockingRepository.findBlockingsByPropertyAndBlockingTimeRange(
@@ -237,12 +405,64 @@ class BookingServiceTest {
 
         bookingService.updateBooking(id, updatedBooking);
 
-        verify(existingBooking).setName(updatedBooking.getName());
-        verify(existingBooking).setDescription(updatedBooking.getDescription());
-        verify(existingBooking).setIsCanceled(updatedBooking.getIsCanceled());
-        verify(existingBooking).setStartDate(updatedBooking.getStartDate());
-        verify(existingBooking).setEndDate(updatedBooking.getEndDate());
-        verify(existingBooking).setProperty(updatedBooking.getProperty());
+        assertThat(existingBooking.getName()).isEqualTo(updatedBooking.getName());
+        assertThat(existingBooking.getDescription()).isEqualTo(updatedBooking.getDescription());
+        assertThat(existingBooking.getIsCanceled()).isEqualTo(updatedBooking.getIsCanceled());
+        assertThat(existingBooking.getStartDate()).isEqualTo(updatedBooking.getStartDate());
+        assertThat(existingBooking.getEndDate()).isEqualTo(updatedBooking.getEndDate());
+        assertThat(existingBooking.getProperty()).isEqualTo(updatedBooking.getProperty());
+    }
+
+    @Test
+    public void givenStaleRequestVersion_whenUpdateBooking_thenThrowConflictException() {
+        Long id = 1L;
+        var existingBooking = createBooking("existing booking");
+        existingBooking.setId(id);
+        existingBooking.setVersion(3L);
+        var updatedBooking = createBooking("test");
+        updatedBooking.setVersion(2L);
+
+        when(bookingRepository.findById(id))
+                .thenReturn(Optional.of(existingBooking));
+
+        ConflictException exception = assertThrows(ConflictException.class, () -> {
+            bookingService.updateBooking(id, updatedBooking);
+        });
+
+        assertThat(exception.getStatus()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(exception.getMessage()).isEqualTo("Booking id: 1 was modified, current version is 3");
+        assertThat(existingBooking.getName()).isEqualTo("existing booking");
+    }
+
+    @Test
+    public void givenConcurrentChangeOfOtherField_whenRetryUpdateBooking_thenApplyOnlyRequestedFields() {
+        Long id = 1L;
+        var base = new UpdateBase();
+        var updatedBooking = createBooking("test");
+        updatedBooking.setVersion(0L);
+        var existingBooking = createBooking("existing booking");
+        existingBooking.setVersion(0L);
+        var concurrentBooking = createBooking("existing booking");
+        concurrentBooking.setDescription("concurrent description");
+        concurrentBooking.setVersion(1L);
+
+        when(bookingRepository.findById(id))
+                .thenReturn(Optional.of(existingBooking))
+                .thenReturn(Optional.of(concurrentBooking));
+        when(propertyService.lockPropertyById(updatedBooking.getProperty().getId()))
+                .thenReturn(updatedBooking.getProperty());
+        when(bookingRepository.findBookingsByPropertyAndBookingTimeRangeAndStatus(
+                updatedBooking.getProperty(), updatedBooking.getStartDate(), updatedBooking.getEndDate(), false))
+                .thenReturn(emptyList());
+        when(blockingRepository.findBlockingsByPropertyAndBlockingTimeRange(
+                updatedBooking.getProperty(), updatedBooking.getStartDate(), updatedBooking.getEndDate()))
+                .thenReturn(emptyList());
+
+        bookingService.updateBooking(id, updatedBooking, null, base);
+        bookingService.updateBooking(id, updatedBooking, null, base);
+
+        assertThat(concurrentBooking.getName()).isEqualTo("test");
+        assertThat(concurrentBooking.getDescription()).isEqualTo("concurrent description");
     }
 
     @Test
@@ -261,6 +481,25 @@ class BookingServiceTest {
         assertThat(exception.getMessage()).isEqualTo("Booking id: 1 not found");
     }
 
+    @Test
+    public void givenStaleVersion_whenUpdateBooking_thenThrowPreconditionFailedException() {
+        Long id = 1L;
+        var existingBooking = createBooking("existing booking");
+        existingBooking.setId(id);
+        existingBooking.setVersion(3L);
+
+        when(bookingRepository.findById(id))
+                .thenReturn(Optional.of(existingBooking));
+
+        PreconditionFailedException exception = assertThrows(PreconditionFailedException.class, () -> {
+            bookingService.updateBooking(id, createBooking("test"), Set.of(2L), new UpdateBase());
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Booking id: 1 was modified, current version is 3");
+        assertThat(existingBooking.getName()).isEqualTo("existing booking");
+        verifyNoInteractions(blockingRepository);
+    }
+
     @Test
     public void givenExistingActiveBookingWithSameTimeAndProperty_whenUpdateBooking_thenThrowBadRequestException() {
         Long id = 1L;
@@ -316,13 +555,13 @@ class BookingServiceTest {
     public void givenInvalidStartEndDate_whenUpdateBooking_thenThrowValidationException() {
         Long id = 1L;
         var booking = createBooking("test");
-        booking.setStartDate("2024-01-02 12:00:00");
-        booking.setEndDate("2024-01-02 01:00:00");
+        booking.setStartDate(parse("2024-01-02 12:00:00"));
+        booking.setEndDate(parse("2024-01-02 01:00:00"));
 
         when(bookingRepository.findById(id))
                 .thenReturn(Optional.of(booking));
 
-        when(propertyService.getPropertyById(booking.getProperty().getId()))
+        when(propertyService.lockPropertyById(booking.getProperty().getId()))
                 .thenReturn(booking.getProperty());
 
         ValidationException exception = assertThrows(ValidationException.class, () -> {
@@ -0,0 +1,193 @@
+package com.davi.demo.booking.service.service;
+
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent;
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent.Action;
+import com.davi.demo.booking.service.event.AvailabilityChangeEvent.Type;
+import com.davi.demo.booking.service.event.ChangeFeedEvent;
+import com.davi.demo.booking.service.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.davi.demo.booking.service.common.DateUtil.parse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChangeFeedTest {
+
+    private final ChangeFeed changeFeed = new ChangeFeed(4, 1, Duration.ofMinutes(1), Duration.ofHours(1), 1);
+
+    @AfterEach
+    void cleanup() {
+        changeFeed.destroy();
+    }
+
+    @Test
+    public void givenChanges_whenAfter_thenReturnNewerEventsInOrder() {
+        append(3);
+
+        var window = changeFeed.after(1);
+
+        assertThat(window.gap()).isFalse();
+        assertThat(window.last()).isEqualTo(3);
+        assertThat(window.events()).extracting(ChangeFeedEvent::sequence).containsExactly(2L, 3L);
+        assertThat(window.events()).extracting(ChangeFeedEvent::id).containsExactly(2L, 3L);
+    }
+
+    @Test
+    public void givenMoreChangesThanBuffer_whenAfterOverwrittenSequence_thenReturnGap() {
+        append(6);
+
+        var overwritten = changeFeed.after(1);
+        var oldestKept = changeFeed.after(2);
+
+        assertThat(overwritten.gap()).isTrue();
+        assertThat(overwritten.events()).isEmpty();
+        assertThat(oldestKept.gap()).isFalse();
+        assertThat(oldestKept.events()).extracting(ChangeFeedEvent::sequence).containsExactly(3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    public void givenSequenceAheadOfFeed_whenAfter_thenReturnGap() {
+        append(2);
+
+        var window = changeFeed.after(10);
+
+        assertThat(window.gap()).isTrue();
+        assertThat(window.last()).isEqualTo(2);
+    }
+
+    @Test
+    public void givenMaxSubscribers_whenSubscribe_thenThrowServiceUnavailableException() {
+        changeFeed.subscribe(null, null);
+
+        assertThrows(ServiceUnavailableException.class, () -> changeFeed.subscribe(1L, null));
+        assertThat(changeFeed.subscribers()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenStalledSubscriber_whenChange_thenOtherSubscribersStillReceiveIt() throws Exception {
+        var stalled = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var received = new LinkedBlockingQueue<String>();
+        var feed = new ChangeFeed(4, 2, Duration.ofMinutes(1), Duration.ofHours(1), 1) {
+            private boolean first = true;
+
+            @Override
+            SseEmitter newEmitter(Duration timeout) {
+                var blocking = first;
+                first = false;
+                return new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder event) throws IOException {
+                        if(blocking) {
+                            stalled.countDown();
+                            awaitQuietly(release);
+                        } else {
+                            var text = new StringBuilder();
+                            event.build().forEach(data -> text.append(data.getData()));
+                            received.add(text.toString());
+                        }
+                    }
+                };
+            }
+        };
+        try {
+            feed.subscribe(null, null);
+            assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+            feed.subscribe(null, null);
+            feed.onChange(new AvailabilityChangeEvent(Type.BOOKING, Action.CREATED, 1L, 1L,
+                    parse("2024-01-01 10:00:00"), parse("2024-01-01 12:00:00"), true));
+
+            assertThat(received.poll(5, TimeUnit.SECONDS)).contains("connected");
+            assertThat(received.poll(5, TimeUnit.SECONDS)).contains("event:" + ChangeFeed.CHANGE_EVENT);
+        } finally {
+            release.countDown();
+            feed.destroy();
+        }
+    }
+
+    @Test
+    public void givenEventIdOfPreviousRun_whenSubscribe_thenSendResetInsteadOfNewerChanges() throws Exception {
+        var received = new LinkedBlockingQueue<String>();
+        var previous = recordingFeed(1L, received);
+        var restarted = recordingFeed(2L, received);
+        try {
+            previous.onChange(change(1L));
+            previous.onChange(change(2L));
+            for(long id = 1; id <= 3; id++) {
+                restarted.onChange(change(id));
+            }
+
+            restarted.subscribe(null, new ChangeFeed.EventId(1L, 2L));
+
+            assertThat(received.poll(5, TimeUnit.SECONDS)).contains("connected");
+            assertThat(received.poll(5, TimeUnit.SECONDS))
+                    .contains("event:" + ChangeFeed.RESET_EVENT, "id:2-3")
+                    .doesNotContain("event:" + ChangeFeed.CHANGE_EVENT);
+            assertThat(received.poll(200, TimeUnit.MILLISECONDS)).isNull();
+        } finally {
+            previous.destroy();
+            restarted.destroy();
+        }
+    }
+
+    @Test
+    public void givenEventIdOfSameRun_whenSubscribe_thenSendNewerChanges() throws Exception {
+        var received = new LinkedBlockingQueue<String>();
+        var feed = recordingFeed(1L, received);
+        try {
+            for(long id = 1; id <= 3; id++) {
+                feed.onChange(change(id));
+            }
+
+            feed.subscribe(null, new ChangeFeed.EventId(1L, 2L));
+
+            assertThat(received.poll(5, TimeUnit.SECONDS)).contains("connected");
+            assertThat(received.poll(5, TimeUnit.SECONDS)).contains("event:" + ChangeFeed.CHANGE_EVENT, "id:1-3");
+        } finally {
+            feed.destroy();
+        }
+    }
+
+    private static ChangeFeed recordingFeed(long epoch, LinkedBlockingQueue<String> received) {
+        return new ChangeFeed(epoch, 4, 1, Duration.ofMinutes(1), Duration.ofHours(1), 1) {
+            @Override
+            SseEmitter newEmitter(Duration timeout) {
+                return new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder event) {
+                        var text = new StringBuilder();
+                        event.build().forEach(data -> text.append(data.getData()));
+                        received.add(text.toString());
+                    }
+                };
+            }
+        };
+    }
+
+    private static AvailabilityChangeEvent change(long id) {
+        return new AvailabilityChangeEvent(Type.BOOKING, Action.CREATED, id, 1L,
+                parse("2024-01-01 10:00:00"), parse("2024-01-01 12:00:00"), true);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void append(int count) {
+        for(long id = 1; id <= count; id++) {
+            changeFeed.onChange(change(id));
+        }
+    }
+}
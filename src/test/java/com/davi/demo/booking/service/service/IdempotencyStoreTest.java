@@ -0,0 +1,119 @@
+package com.davi.demo.booking.service.service;
+
+import com.davi.demo.booking.service.exception.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore idempotencyStore = new IdempotencyStore(new ObjectMapper(), 100, Duration.ofMinutes(1));
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    public void givenNoKey_whenExecuteTwice_thenRunTwice() {
+        idempotencyStore.execute("booking", null, 1, calls::incrementAndGet);
+        var result = idempotencyStore.execute("booking", null, 1, calls::incrementAndGet);
+
+        assertThat(result.value()).isEqualTo(2);
+        assertThat(result.replayed()).isFalse();
+        assertThat(idempotencyStore.size()).isZero();
+    }
+
+    @Test
+    public void givenSameKey_whenExecuteTwice_thenReplayFirstResult() {
+        var first = idempotencyStore.execute("booking", "key", 1, calls::incrementAndGet);
+        var second = idempotencyStore.execute("booking", "key", 1, calls::incrementAndGet);
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(second.replayed()).isTrue();
+        assertThat(second.value()).isEqualTo(1);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    public void givenSameKeyInOtherScope_whenExecute_thenRunAgain() {
+        idempotencyStore.execute("booking", "key", 1, calls::incrementAndGet);
+        var result = idempotencyStore.execute("blocking", "key", 1, calls::incrementAndGet);
+
+        assertThat(result.replayed()).isFalse();
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    public void givenSameKeyWithOtherRequest_whenExecute_thenThrowBadRequestException() {
+        idempotencyStore.execute("booking", "key", 1, calls::incrementAndGet);
+
+        assertThrows(BadRequestException.class,
+                () -> idempotencyStore.execute("booking", "key", 2, calls::incrementAndGet));
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    public void givenSameKeyWithOtherRequestOfSameHashCode_whenExecute_thenThrowBadRequestException() {
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        idempotencyStore.execute("booking", "key", "Aa", calls::incrementAndGet);
+
+        assertThrows(BadRequestException.class,
+                () -> idempotencyStore.execute("booking", "key", "BB", calls::incrementAndGet));
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    public void givenFailedRequest_whenExecuteSameKey_thenRunAgain() {
+        assertThrows(BadRequestException.class, () -> idempotencyStore.execute("booking", "key", 1, () -> {
+            throw new BadRequestException("Property is already booked for this period");
+        }));
+
+        var result = idempotencyStore.execute("booking", "key", 1, calls::incrementAndGet);
+
+        assertThat(result.replayed()).isFalse();
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    public void givenTooLongKey_whenExecute_thenThrowBadRequestException() {
+        assertThrows(BadRequestException.class,
+                () -> idempotencyStore.execute("booking", "k".repeat(256), 1, calls::incrementAndGet));
+        assertThrows(BadRequestException.class,
+                () -> idempotencyStore.execute("booking", " ", 1, calls::incrementAndGet));
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    public void givenKeyInProgress_whenExecuteSameKey_thenWaitForFirstResult() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var first = CompletableFuture.supplyAsync(() -> idempotencyStore.execute("booking", "key", 1, () -> {
+            started.countDown();
+            await(release);
+            return calls.incrementAndGet();
+        }));
+        started.await(5, TimeUnit.SECONDS);
+
+        var second = CompletableFuture.supplyAsync(
+                () -> idempotencyStore.execute("booking", "key", 1, calls::incrementAndGet));
+        release.countDown();
+
+        assertThat(second.get(5, TimeUnit.SECONDS).value()).isEqualTo(1);
+        assertThat(second.get().replayed()).isTrue();
+        assertThat(first.get(5, TimeUnit.SECONDS).replayed()).isFalse();
+        assertThat(calls).hasValue(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
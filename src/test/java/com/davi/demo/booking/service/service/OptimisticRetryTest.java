@@ -0,0 +1,64 @@
+package com.davi.demo.booking.service.service;
+
+import com.davi.demo.booking.service.exception.ConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimisticRetryTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final OptimisticRetry optimisticRetry = new OptimisticRetry(2, new BookingMetrics(registry));
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    public void givenNoConflict_whenRun_thenRunOnce() {
+        var result = optimisticRetry.run(BookingMetrics.BOOKING, 1L, attempts::incrementAndGet);
+
+        assertThat(result).isEqualTo(1);
+        assertThat(registry.find("booking.optimistic.retries").counter()).isNull();
+    }
+
+    @Test
+    public void givenConflictOnce_whenRun_thenRetryInNewAttempt() {
+        var result = optimisticRetry.run(BookingMetrics.BOOKING, 1L, () -> {
+            if(attempts.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException("Booking", 1L);
+            }
+            return attempts.get();
+        });
+
+        assertThat(result).isEqualTo(2);
+        assertThat(registry.get("booking.optimistic.retries").tag("entity", "booking").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenConflictOnEveryAttempt_whenRun_thenThrowConflictException() {
+        ConflictException exception = assertThrows(ConflictException.class, () ->
+                optimisticRetry.run(BookingMetrics.BLOCKING, 7L, () -> {
+                    attempts.incrementAndGet();
+                    throw new ObjectOptimisticLockingFailureException("Blocking", 7L);
+                }));
+
+        assertThat(exception.getStatus()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(exception.getMessage()).isEqualTo("Blocking id: 7 was modified concurrently, reload it and try again");
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    public void givenNoRetries_whenConflict_thenThrowConflictExceptionAtOnce() {
+        var noRetry = new OptimisticRetry(0, new BookingMetrics(registry));
+
+        assertThrows(ConflictException.class, () -> noRetry.run(BookingMetrics.BOOKING, 1L, () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Booking", 1L);
+        }));
+        assertThat(attempts).hasValue(1);
+    }
+}
@@ -0,0 +1,78 @@
+package com.davi.demo.booking.service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PropertyLocksTest {
+
+    private final PropertyLocks propertyLocks = new PropertyLocks(64);
+
+    @AfterEach
+    void cleanup() {
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete();
+        }
+    }
+
+    @Test
+    public void givenNoTransaction_whenLockUntilCompletion_thenThrowIllegalStateException() {
+        assertThrows(IllegalStateException.class, () -> propertyLocks.lockUntilCompletion(List.of(1L)));
+    }
+
+    @Test
+    public void givenIdsOnSameStripe_whenLockUntilCompletion_thenLockStripeOnce() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        propertyLocks.lockUntilCompletion(List.of(1L, 65L, 2L));
+
+        assertThat(propertyLocks.stripeOf(1L)).isEqualTo(propertyLocks.stripeOf(65L));
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(2);
+        assertThat(propertyLocks.stats().acquisitions()).isEqualTo(2);
+    }
+
+    @Test
+    public void givenLockedProperty_whenOtherTransactionLocks_thenWaitForCompletion() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        propertyLocks.lockUntilCompletion(List.of(1L));
+
+        var waiter = CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            propertyLocks.lockUntilCompletion(List.of(1L));
+            complete();
+        });
+        var other = CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            propertyLocks.lockUntilCompletion(List.of(2L));
+            complete();
+        });
+
+        other.get(5, TimeUnit.SECONDS);
+        assertThrows(TimeoutException.class, () -> waiter.get(200, TimeUnit.MILLISECONDS));
+
+        complete();
+        waiter.get(5, TimeUnit.SECONDS);
+
+        var stats = propertyLocks.stats();
+        assertThat(stats.acquisitions()).isEqualTo(3);
+        assertThat(stats.contended()).isEqualTo(1);
+        assertThat(stats.totalWaitNanos()).isPositive();
+        assertThat(stats.maxWaitNanos()).isEqualTo(stats.totalWaitNanos());
+    }
+
+    private static void complete() {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+}
@@ -4,18 +4,26 @@ import com.davi.demo.booking.service.exception.NotFoundException;
 import com.davi.demo.booking.service.exception.ValidationException;
 import com.davi.demo.booking.service.model.Property;
 import com.davi.demo.booking.service.repository.PropertyRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 
@@ -24,9 +32,19 @@ class PropertyServiceTest {
     @Mock
     private PropertyRepository propertyRepository;
 
-    @InjectMocks
+    @Mock
+    private PropertyLocks propertyLocks;
+
+    private PropertyCache propertyCache;
+
     private PropertyService propertyService;
 
+    @BeforeEach
+    void setup() {
+        propertyCache = new PropertyCache(100, Duration.ofMinutes(10));
+        propertyService = new PropertyService(propertyRepository, propertyLocks, propertyCache, true, true);
+    }
+
     @Test
     public void givenValidId_whenGetPropertyById_thenReturnProperty() {
         Long id = 1L;
@@ -63,4 +81,130 @@ class PropertyServiceTest {
         assertThat(exception.getStatus()).isEqualTo(HttpStatus.NOT_FOUND);
         assertThat(exception.getMessage()).isEqualTo("Property id: 99 not found");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void givenValidId_whenLockPropertyById_thenLockAndReturnProperty() {
+        Long id = 1L;
+        var property = new Property();
+        property.setId(id);
+
+        when(propertyRepository.findByIdForUpdate(id))
+                .thenReturn(Optional.of(property));
+
+        Property resultProperty = propertyService.lockPropertyById(id);
+
+        assertThat(resultProperty).isEqualTo(property);
+        verify(propertyLocks).lockUntilCompletion(List.of(id));
+    }
+
+    @Test
+    public void givenNullId_whenLockPropertyById_thenThrowValidationException() {
+        ValidationException exception = assertThrows(ValidationException.class, () -> {
+            propertyService.lockPropertyById(null);
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Property Id is required");
+        verifyNoInteractions(propertyLocks);
+    }
+
+    @Test
+    public void givenNotExistingId_whenLockPropertyById_thenThrowNotFoundException() {
+        when(propertyRepository.findByIdForUpdate(anyLong()))
+                .thenReturn(Optional.empty());
+
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> {
+            propertyService.lockPropertyById(99L);
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Property id: 99 not found");
+    }
+
+    @Test
+    public void givenIds_whenLockPropertiesByIds_thenReturnExistingProperties() {
+        var property = new Property();
+        property.setId(1L);
+        var ids = Set.of(1L, 99L);
+
+        when(propertyRepository.findAllByIdForUpdate(ids))
+                .thenReturn(List.of(property));
+
+        var properties = propertyService.lockPropertiesByIds(ids);
+
+        assertThat(properties).isEqualTo(Map.of(1L, property));
+        verify(propertyLocks).lockUntilCompletion(ids);
+    }
+
+    @Test
+    public void givenCachedProperty_whenGetPropertyById_thenLoadOnce() {
+        var property = new Property();
+        property.setId(1L);
+
+        when(propertyRepository.findById(1L))
+                .thenReturn(Optional.of(property));
+
+        propertyService.getPropertyById(1L);
+        propertyService.getPropertyById(1L);
+
+        verify(propertyRepository, times(1)).findById(1L);
+        assertThat(propertyCache.stats().hitCount()).isEqualTo(1);
+        assertThat(propertyCache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenEvictedProperty_whenGetPropertyById_thenLoadAgain() {
+        var property = new Property();
+        property.setId(1L);
+
+        when(propertyRepository.findById(1L))
+                .thenReturn(Optional.of(property));
+
+        propertyService.getPropertyById(1L);
+        propertyService.evictProperty(1L);
+        propertyService.getPropertyById(1L);
+        propertyService.evictAllProperties();
+        propertyService.getPropertyById(1L);
+
+        verify(propertyRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    public void givenNotExistingId_whenGetPropertyByIdTwice_thenDoNotCacheMissingProperty() {
+        when(propertyRepository.findById(99L))
+                .thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> propertyService.getPropertyById(99L));
+        assertThrows(NotFoundException.class, () -> propertyService.getPropertyById(99L));
+
+        verify(propertyRepository, times(2)).findById(99L);
+        assertThat(propertyCache.size()).isZero();
+    }
+
+    @Test
+    public void givenWarmEnabled_whenWarmCache_thenServeFromCache() {
+        var property = new Property();
+        property.setId(1L);
+
+        when(propertyRepository.findAll())
+                .thenReturn(List.of(property));
+
+        propertyService.warmCache();
+
+        assertThat(propertyService.getPropertyById(1L)).isEqualTo(property);
+        verify(propertyRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    public void givenNoRowLock_whenLockPropertiesByIds_thenUseCache() {
+        var noRowLockService = new PropertyService(propertyRepository, propertyLocks, propertyCache, false, false);
+        var property = new Property();
+        property.setId(1L);
+        propertyCache.putAll(List.of(property));
+
+        assertThat(noRowLockService.lockPropertyById(1L)).isEqualTo(property);
+        assertThat(noRowLockService.lockPropertiesByIds(Set.of(1L))).isEqualTo(Map.of(1L, property));
+
+        verify(propertyLocks).lockUntilCompletion(List.of(1L));
+        verify(propertyLocks).lockUntilCompletion(Set.of(1L));
+        verifyNoInteractions(propertyRepository);
+    }
+}
@@ -0,0 +1,65 @@
+package com.davi.demo.booking.service.service;
+
+import com.davi.demo.booking.service.common.ListFilter;
+import com.davi.demo.booking.service.exception.NotFoundException;
+import com.davi.demo.booking.service.repository.ReactiveReadRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static com.davi.demo.booking.service.TestData.createBlocking;
+import static com.davi.demo.booking.service.TestData.createBooking;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveReadServiceTest {
+
+    @Mock
+    private ReactiveReadRepository reactiveReadRepository;
+
+    @InjectMocks
+    private ReactiveReadService reactiveReadService;
+
+    @Test
+    void givenExistingId_whenGetBookingById_thenReturnBooking() {
+        var booking = createBooking("test");
+        when(reactiveReadRepository.findBookingById(1L)).thenReturn(Mono.just(booking));
+
+        assertThat(reactiveReadService.getBookingById(1L).block()).isEqualTo(booking);
+    }
+
+    @Test
+    void givenNotExistingId_whenGetBookingById_thenErrorWithNotFoundException() {
+        when(reactiveReadRepository.findBookingById(99L)).thenReturn(Mono.empty());
+
+        NotFoundException exception = assertThrows(NotFoundException.class, () ->
+                reactiveReadService.getBookingById(99L).block());
+
+        assertThat(exception.getMessage()).isEqualTo("Booking id: 99 not found");
+    }
+
+    @Test
+    void givenNotExistingId_whenGetBlockingById_thenErrorWithNotFoundException() {
+        when(reactiveReadRepository.findBlockingById(99L)).thenReturn(Mono.empty());
+
+        NotFoundException exception = assertThrows(NotFoundException.class, () ->
+                reactiveReadService.getBlockingById(99L).block());
+
+        assertThat(exception.getMessage()).isEqualTo("Blocking id: 99 not found");
+    }
+
+    @Test
+    void givenFilter_whenGetBlockings_thenStreamFromRepository() {
+        var filter = ListFilter.of(1L, null, null, null);
+        var blocking = createBlocking("test");
+        when(reactiveReadRepository.findBlockings(filter)).thenReturn(Flux.just(blocking));
+
+        assertThat(reactiveReadService.getBlockings(filter).collectList().block()).containsExactly(blocking);
+    }
+}